@@ -0,0 +1,50 @@
+package com.example.ola.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한 건당 JWT 검증 비용 비교
+ * before : validateToken + getUserPk 가 매번 parser 를 만들고 서명을 두 번 검증
+ * after : 공유 parser 로 한 번만 검증하고 claims 를 재사용
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "b2xhLWp3dHNlY3JldGtleXNldHRpbmdzLWl0Z29lc3Rvand0dG9rZW5wcm92aWRlci1pdHdvdWxkYmVsb25nZXItc29pc2F5bWVhbmluZ2xlc3N0aGluZ3M=";
+
+    private Key key;
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600L, 1_209_600L, false, 900L, null, null, null);
+        jwtTokenProvider.afterPropertiesSet();
+        token = jwtTokenProvider.createToken("user1", List.of("ROLE_USER"));
+    }
+
+    @Benchmark
+    public String beforeValidateThenParse() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String afterVerifyOnce() {
+        return jwtTokenProvider.verify(token).getClaims().getSubject();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ola.service;
+
+import com.example.ola.OlaApplication;
+import com.example.ola.domain.Alarm;
+import com.example.ola.domain.AlarmArgs;
+import com.example.ola.domain.AlarmType;
+import com.example.ola.domain.User;
+import com.example.ola.repository.AlarmRepository;
+import com.example.ola.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 팀 인원수에 따른 알람 fan-out 저장 지연 비교
+ * before : 수신자마다 em.persist, IDENTITY 라 INSERT 가 수신자 수만큼 나간다.
+ * after : AlarmRepository.saveAll 로 multi-row INSERT 한 번
+ * dev 프로필의 MySQL 이 떠 있어야 한다. 알람은 매번 롤백하고, 벤치마크용 유저만 남는다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AlarmFanOutBenchmark {
+    @Param({"5", "30", "100"})
+    private int teamSize;
+
+    private ConfigurableApplicationContext context;
+    private AlarmRepository alarmRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<User> receivers;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OlaApplication.class)
+                .profiles("dev")
+                .properties("server.port=0", "spring.jpa.properties.hibernate.show_sql=false")
+                .run();
+        alarmRepository = context.getBean(AlarmRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String prefix = "bench-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        receivers = transactionTemplate.execute(status -> {
+            List<User> users = new ArrayList<>(teamSize);
+            for (int i = 0; i < teamSize; i++) {
+                users.add(userRepository.save(User.of(prefix + i, "imgUri", "password", "nick", "name", 30L, null, "male")));
+            }
+            return users;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int beforePersistEach() {
+        return transactionTemplate.execute(status -> {
+            for (User receiver : receivers) {
+                alarmRepository.save(newAlarm(receiver));
+            }
+            status.setRollbackOnly();
+            return receivers.size();
+        });
+    }
+
+    @Benchmark
+    public int afterSaveAll() {
+        return transactionTemplate.execute(status -> {
+            List<Alarm> alarms = new ArrayList<>(receivers.size());
+            for (User receiver : receivers) {
+                alarms.add(newAlarm(receiver));
+            }
+            int saved = alarmRepository.saveAll(alarms).size();
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+
+    private Alarm newAlarm(User receiver) {
+        return Alarm.of(receiver, AlarmArgs.of(1L, "bench-writer"), AlarmType.JOIN);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ola.config;
+
+import com.example.ola.repository.RecentAlarmRepository;
+import com.example.ola.service.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * alarm.bus.type 에 따라 AlarmBus 구현을 등록한다.
+ * local : 단일 노드, redis : Redis pub/sub 로 노드 간 전달, loopback : 프로세스 안의 transport (테스트용)
+ */
+@Configuration
+public class AlarmBusConfig {
+    private static final String BUS_TYPE = "alarm.bus.type";
+
+    @Bean
+    @ConditionalOnProperty(name = BUS_TYPE, havingValue = "local", matchIfMissing = true)
+    public AlarmBus localAlarmBus(AlarmSender alarmSender) {
+        return new LocalAlarmBus(alarmSender);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = BUS_TYPE, havingValue = "redis")
+    public RedisMessageListenerContainer alarmBusListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = BUS_TYPE, havingValue = "redis")
+    public AlarmBusTransport redisAlarmBusTransport(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer alarmBusListenerContainer,
+            @Value("${alarm.bus.channel:ola:alarm}") String channel) {
+        return new RedisAlarmBusTransport(redisTemplate, alarmBusListenerContainer, new ChannelTopic(channel));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = BUS_TYPE, havingValue = "loopback")
+    public AlarmBusTransport loopbackAlarmBusTransport() {
+        return new LoopbackAlarmBusTransport();
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${alarm.bus.type:local}' != 'local'")
+    public AlarmBus networkAlarmBus(
+            AlarmBusTransport transport,
+            AlarmSender alarmSender,
+            RecentAlarmRepository recentAlarmRepository,
+            ObjectMapper objectMapper,
+            @Value("${alarm.bus.batch-size:100}") int batchSize,
+            @Value("${alarm.bus.queue-capacity:10000}") int queueCapacity,
+            @Value("${alarm.bus.flush-interval-ms:20}") long flushIntervalMs,
+            MeterRegistry meterRegistry) {
+        return new NetworkAlarmBus(transport, alarmSender, recentAlarmRepository, objectMapper, batchSize, queueCapacity, flushIntervalMs, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ola.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxBuckets = 100_000;
+    private List<Route> routes = new ArrayList<>();
+    private Rule username = new Rule(5, 0.1);
+
+    @Data
+    public static class Rule {
+        private long capacity;
+        private double refillPerSecond;
+
+        public Rule() {
+        }
+
+        public Rule(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    /**
+     * IP 별로 제한하는 경로, 먼저 선언된 경로가 우선한다.
+     */
+    @Data
+    public static class Route {
+        private String name;
+        private String method;
+        private String pattern;
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
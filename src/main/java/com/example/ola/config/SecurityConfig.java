@@ -4,6 +4,9 @@ import com.example.ola.jwt.JwtAccessDeniedHandler;
 import com.example.ola.jwt.JwtAuthenticationEntryPoint;
 import com.example.ola.jwt.JwtSecurityConfig;
 import com.example.ola.jwt.JwtTokenProvider;
+import com.example.ola.service.RateLimiter;
+import com.example.ola.service.SseAdmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -26,6 +29,10 @@ public class SecurityConfig {
     private final JwtTokenProvider jwtTokenProvider;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final SseAdmission sseAdmission;
+    private final ObjectMapper objectMapper;
 
     @Bean
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -59,7 +66,10 @@ public class SecurityConfig {
                                 ).permitAll()
                                 .anyRequest().authenticated()
                 )
-                .apply(new JwtSecurityConfig(jwtTokenProvider))
+                .apply(new JwtSecurityConfig(
+                        jwtTokenProvider,
+                        new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper),
+                        new SseAdmissionFilter(sseAdmission)))
                 .and()
                 .build();
     }
@@ -0,0 +1,86 @@
+package com.example.ola.config;
+
+import com.example.ola.service.SseAdmission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * SSE 구독 요청의 수락 제어, JwtAuthenticationFilter 다음에 실행되어 로그인 여부에 따라 다른 bucket 을 쓴다.
+ * 인증이 필요한 구독에 토큰이 없으면 수락 몫을 쓰지 않고 그대로 넘겨 인가 단계에서 거절되게 한다.
+ */
+@Slf4j
+public class SseAdmissionFilter extends OncePerRequestFilter {
+    private static final String ALARM_SUBSCRIBE_PATTERN = "/api/v1/users/alarm/subscribe";
+    private static final List<String> SUBSCRIBE_PATTERNS = List.of(
+            ALARM_SUBSCRIBE_PATTERN,
+            "/api/v2/posts/team/*/subscribe");
+
+    private final SseAdmission sseAdmission;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public SseAdmissionFilter(SseAdmission sseAdmission) {
+        this.sseAdmission = sseAdmission;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (isSubscribe(request)) {
+            long retryMillis;
+            if (isAuthenticated()) {
+                retryMillis = sseAdmission.tryAdmit();
+            } else if (pathMatcher.match(ALARM_SUBSCRIBE_PATTERN, request.getRequestURI())) {
+                retryMillis = 0;
+            } else {
+                retryMillis = sseAdmission.tryAdmitAnonymous();
+            }
+            if (retryMillis > 0) {
+                log.debug("sse connection rejected, retry after {} ms", retryMillis);
+                reject(response, retryMillis);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isSubscribe(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return false;
+        }
+        String uri = request.getRequestURI();
+        return SUBSCRIBE_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, uri));
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    /**
+     * EventSource 는 200 이 아닌 응답을 받으면 재연결하지 않고 헤더도 읽지 못한다.
+     * 그래서 200 스트림으로 retry 필드만 보내고 닫아, 브라우저가 그만큼 기다렸다가 스스로 재연결하게 한다.
+     */
+    private void reject(HttpServletResponse response, long retryMillis) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("retry: " + retryMillis + "\n\n");
+        response.flushBuffer();
+    }
+}
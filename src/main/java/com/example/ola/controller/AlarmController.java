@@ -20,17 +20,46 @@ public class AlarmController {
     private final AlarmService alarmService;
 
     /**
-     * 유저별 알람 조회
+     * 유저별 알람 조회, 다음 페이지는 마지막 알람의 id 를 cursor 로 요청한다.
      * @param userPrincipal
+     * @param cursor
+     * @param size
      * @return Response<List<AlarmResponse>>
      */
     @GetMapping
-    public Response<List<AlarmResponse>> alarmList(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return Response.success(alarmService.alarms(userPrincipal.getUsername())
+    public Response<List<AlarmResponse>> alarmList(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        return Response.success(alarmService.alarms(userPrincipal.getId(), cursor, size)
                 .stream().map(AlarmResponse::fromAlarmDto)
                 .collect(Collectors.toList()));
     }
 
+    /**
+     * 읽지 않은 알람 수, 배지 표시용
+     * @param userPrincipal
+     * @return Response<Long>
+     */
+    @GetMapping("/unread-count")
+    public Response<Long> unreadCount(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return Response.success(alarmService.unreadCount(userPrincipal.getId()));
+    }
+
+    /**
+     * upTo 이하의 알람 읽음 처리
+     * @param userPrincipal
+     * @param upTo
+     * @return Response<Void>
+     */
+    @PostMapping("/read")
+    public Response<Void> readAlarms(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam Long upTo) {
+        alarmService.readAlarms(userPrincipal.getId(), upTo);
+        return Response.success();
+    }
+
     /**
      * 알람 삭제
      * @param alarmId
@@ -3,10 +3,13 @@ package com.example.ola.controller;
 import com.example.ola.dto.request.RecommendRequest;
 import com.example.ola.dto.response.*;
 import com.example.ola.service.PostService;
+import com.example.ola.service.TeamChannelService;
 import com.example.ola.service.TeamPostService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,33 +21,38 @@ import java.util.stream.Collectors;
 public class PublicController {
     private final PostService postService;
     private final TeamPostService teamPostService;
+    private final TeamChannelService teamChannelService;
 
     /**
-     * 게시글 조회
+     * 게시글 조회, 다음 페이지는 이전 응답의 nextCursor 를 after 로 넘기면 offset 없이 조회한다.
      * @param page
      * @param keyword
+     * @param after
      * @return Response<MyPageResponse>
      */
     @GetMapping
     public Response<MyPageResponse> postList(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "") String keyword) {
-        return Response.success(postService.findAllPostsWithPaging(page, keyword));
+            @RequestParam(required = false, defaultValue = "") String keyword,
+            @RequestParam(required = false) Long after) {
+        return Response.success(postService.findAllPostsWithPaging(page, keyword, after));
     }
 
     /**
-     * 팀 빌딩 게시글 조회
+     * 팀 빌딩 게시글 조회, 다음 페이지는 이전 응답의 nextCursor 를 after 로 넘기면 offset 없이 조회한다.
      * @param page
      * @param keyword
      * @param place
+     * @param after
      * @return Response<MyPageResponse>
      */
     @GetMapping("/team")
     public Response<MyPageResponse> teamPostList(
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "") String keyword,
-            @RequestParam(required = false, defaultValue = "") String place) {
-        return Response.success(teamPostService.findAllTeamPostsWithPaging(page, keyword, place));
+            @RequestParam(required = false, defaultValue = "") String place,
+            @RequestParam(required = false) Long after) {
+        return Response.success(teamPostService.findAllTeamPostsWithPaging(page, keyword, place, after));
     }
 
     /**
@@ -67,6 +75,16 @@ public class PublicController {
         return Response.success(TeamPostResponse.fromTeamPostDto(teamPostService.findTeamPostById(postId)));
     }
 
+    /**
+     * 팀 빌딩 게시글 채널 구독, 멤버 수가 바뀔 때마다 members 이벤트를 받는다.
+     * @param postId
+     * @return SseEmitter
+     */
+    @GetMapping(value = "/team/{postId}/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTeamPost(@PathVariable Long postId) {
+        return teamChannelService.subscribe(postId);
+    }
+
     /**
      * 팀 빌딩 게시글 대기열 조회
      * @param postId
@@ -1,5 +1,6 @@
 package com.example.ola.controller;
 
+import com.example.ola.dto.TokenDto;
 import com.example.ola.dto.request.UserLoginRequest;
 import com.example.ola.dto.request.UserRequest;
 import com.example.ola.dto.request.UserUpdateRequest;
@@ -10,10 +11,14 @@ import com.example.ola.service.AlarmService;
 import com.example.ola.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @Slf4j
@@ -23,6 +28,10 @@ import javax.validation.Valid;
 public class UserController {
     private final UserService userService;
     private final AlarmService alarmService;
+    private static final String REFRESH_TOKEN_COOKIE = "refresh_token";
+
+    @Value("${jwt.refresh-token-validity-in-seconds:1209600}")
+    private long refreshTokenValidityInSeconds;
 
     /**
      * 유저 정보 조회
@@ -45,13 +54,41 @@ public class UserController {
     }
 
     /**
-     * 로그인
+     * 로그인, refresh 토큰은 HttpOnly 쿠키로 내려준다.
      * @param request
+     * @param response
      * @return Response<String>
      */
     @PostMapping("/login")
-    public Response<String> login(@RequestBody UserLoginRequest request) {
-        return Response.success(userService.login(request.getUsername(), request.getPassword()));
+    public Response<String> login(@RequestBody UserLoginRequest request, HttpServletResponse response) {
+        TokenDto token = userService.login(request.getUsername(), request.getPassword());
+        response.addHeader(HttpHeaders.SET_COOKIE, refreshTokenCookie(token.getRefreshToken()).toString());
+        return Response.success(token.getAccessToken());
+    }
+
+    /**
+     * access 토큰 재발급, refresh 토큰도 함께 회전한다.
+     * @param refreshToken
+     * @param response
+     * @return Response<String>
+     */
+    @PostMapping("/refresh")
+    public Response<String> refresh(
+            @CookieValue(name = REFRESH_TOKEN_COOKIE, required = false) String refreshToken,
+            HttpServletResponse response) {
+        TokenDto token = userService.refresh(refreshToken);
+        response.addHeader(HttpHeaders.SET_COOKIE, refreshTokenCookie(token.getRefreshToken()).toString());
+        return Response.success(token.getAccessToken());
+    }
+
+    private ResponseCookie refreshTokenCookie(String refreshToken) {
+        return ResponseCookie.from(REFRESH_TOKEN_COOKIE, refreshToken)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("None")
+                .path("/api/v1/users")
+                .maxAge(refreshTokenValidityInSeconds)
+                .build();
     }
 
     /**
@@ -68,12 +105,15 @@ public class UserController {
     }
 
     /**
-     * Sse 구독
+     * Sse 구독, 재연결 시 브라우저가 보내는 Last-Event-ID 이후의 알람을 다시 받는다.
      * @param userPrincipal
+     * @param lastEventId
      * @return SseEmitter
      */
     @GetMapping("/alarm/subscribe")
-    public SseEmitter subscribe(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return alarmService.connectAlarm(userPrincipal.getId());
+    public SseEmitter subscribe(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return alarmService.connectAlarm(userPrincipal.getId(), lastEventId);
     }
 }
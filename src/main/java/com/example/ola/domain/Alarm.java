@@ -14,6 +14,7 @@ import java.time.Instant;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @SQLDelete(sql = "UPDATE alarm SET DELETED_AT = NOW() where id = ?")
 @Where(clause = "deleted_at is null")
+@Table(indexes = @Index(name = "idx_alarm_user_deleted_id", columnList = "user_id, deleted_at, id"))
 @Entity
 public class Alarm {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +26,8 @@ public class Alarm {
     @Column(name = "registered_at") private Timestamp registeredAt;
     @Column(name = "updated_at") private Timestamp updatedAt;
     @Column(name = "deleted_at") private Timestamp deletedAt;
+    @Column(name = "read_at") private Timestamp readAt;
+    @Column(name = "actor_count") private Integer actorCount; // 묶인 알람의 actor 수, 이전 알람은 null
 
     public Alarm(User user, AlarmArgs args, AlarmType alarmType) {
         this.user = user;
@@ -36,6 +39,16 @@ public class Alarm {
         return new Alarm(user, args, alarmType);
     }
 
+    public static Alarm of(User user, AlarmArgs args, AlarmType alarmType, int actorCount) {
+        Alarm alarm = new Alarm(user, args, alarmType);
+        alarm.actorCount = actorCount;
+        return alarm;
+    }
+
+    public int getActorCount() {
+        return actorCount == null ? 1 : actorCount;
+    }
+
     @PrePersist void registeredAt() { this.registeredAt = Timestamp.from(Instant.now()); }
     @PreUpdate void updatedAt() { this.updatedAt = Timestamp.from(Instant.now()); }
 
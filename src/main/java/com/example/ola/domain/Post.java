@@ -13,10 +13,14 @@ import java.time.Instant;
 
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@SQLDelete(sql = "UPDATE post SET DELETED_AT = NOW() where id = ?")
+@SQLDelete(sql = "UPDATE post SET DELETED_AT = NOW(), UPDATED_AT = NOW() where id = ?") // 검색 색인 동기화가 updated_at 으로 삭제를 찾는다.
 @Where(clause = "deleted_at is null")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "DTYPE")
+@Table(indexes = {
+        @Index(name = "idx_post_dtype_deleted_id", columnList = "dtype, deleted_at, id"), // 목록 조회의 id seek 용
+        @Index(name = "idx_post_registered_at", columnList = "registered_at"), // 검색 색인 동기화용
+        @Index(name = "idx_post_updated_at", columnList = "updated_at")})
 @Entity
 public class Post {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
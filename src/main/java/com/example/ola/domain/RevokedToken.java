@@ -0,0 +1,32 @@
+package com.example.ola.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_revoked_token_token_id", columnNames = "token_id"))
+@Entity
+public class RevokedToken {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "token_id", nullable = false, length = 64) private String tokenId;
+    @Column(name = "expired_at", nullable = false) private Timestamp expiredAt;
+    @Column(name = "registered_at") private Timestamp registeredAt;
+
+    public RevokedToken(String tokenId, Timestamp expiredAt) {
+        this.tokenId = tokenId;
+        this.expiredAt = expiredAt;
+    }
+
+    public static RevokedToken of(String tokenId, Timestamp expiredAt) {
+        return new RevokedToken(tokenId, expiredAt);
+    }
+
+    @PrePersist void registeredAt() { this.registeredAt = Timestamp.from(Instant.now()); }
+}
@@ -16,7 +16,7 @@ import java.util.Set;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@SQLDelete(sql = "UPDATE post SET DELETED_AT = NOW() where id = ?")
+@SQLDelete(sql = "UPDATE post SET DELETED_AT = NOW(), UPDATED_AT = NOW() where id = ?") // 검색 색인 동기화가 updated_at 으로 삭제를 찾는다.
 @Where(clause = "deleted_at is null")
 @DiscriminatorValue("T")
 @Entity
@@ -17,9 +17,11 @@ public class AlarmDto {
     private String fromUsername;
     private Long postId;
     private AlarmType alarmType;
+    private boolean read;
+    private int actorCount;
 
     public static AlarmDto of(Long id, String receivedUsername, String fromUsername, Long postId, AlarmType alarmType) {
-        return new AlarmDto(id, receivedUsername, fromUsername, postId, alarmType);
+        return new AlarmDto(id, receivedUsername, fromUsername, postId, alarmType, false, 1);
     }
 
     public static AlarmDto fromAlarm(Alarm alarm) {
@@ -28,7 +30,9 @@ public class AlarmDto {
                 alarm.getUser().getUsername(),
                 alarm.getArgs().getFromUser(),
                 alarm.getArgs().getPostId(),
-                alarm.getAlarmType()
+                alarm.getAlarmType(),
+                alarm.getReadAt() != null,
+                alarm.getActorCount()
         );
     }
 }
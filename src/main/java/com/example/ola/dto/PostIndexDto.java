@@ -0,0 +1,19 @@
+package com.example.ola.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 검색 색인 동기화용 게시글 행, 삭제된 게시글도 deleted 로 함께 읽는다.
+ * place 는 팀 빌딩 게시글 운동 장소의 도로명 주소다.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class PostIndexDto {
+    private Long id;
+    private String dtype;
+    private String title;
+    private String content;
+    private String place;
+    private boolean deleted;
+}
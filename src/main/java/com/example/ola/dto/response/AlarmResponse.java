@@ -17,6 +17,8 @@ public class AlarmResponse {
     private String fromUsername;
     private Long postId;
     private AlarmType alarmType;
+    private boolean read;
+    private int actorCount;
 
     public static AlarmResponse fromAlarmDto(AlarmDto alarmDto) {
         return new AlarmResponse(
@@ -24,7 +26,9 @@ public class AlarmResponse {
                 alarmDto.getReceivedUsername(),
                 alarmDto.getFromUsername(),
                 alarmDto.getPostId(),
-                alarmDto.getAlarmType()
+                alarmDto.getAlarmType(),
+                alarmDto.isRead(),
+                alarmDto.getActorCount()
         );
     }
 }
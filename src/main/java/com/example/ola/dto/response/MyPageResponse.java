@@ -14,8 +14,13 @@ import lombok.NoArgsConstructor;
 public class MyPageResponse<T> {
     T contents;
     List<Integer> pageList;
+    Long nextCursor; // 다음 페이지를 after 로 조회할 때 넘길 id, 마지막 페이지면 null
 
     public static <T> MyPageResponse of(T result, List<Integer> pageList) {
-        return new MyPageResponse(result, pageList);
+        return new MyPageResponse(result, pageList, null);
+    }
+
+    public static <T> MyPageResponse of(T result, List<Integer> pageList, Long nextCursor) {
+        return new MyPageResponse(result, pageList, nextCursor);
     }
 }
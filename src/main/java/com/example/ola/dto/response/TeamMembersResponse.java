@@ -0,0 +1,30 @@
+package com.example.ola.dto.response;
+
+import com.example.ola.domain.TeamBuildingStatus;
+import com.example.ola.event.TeamMembersChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TeamMembersResponse {
+    private Long postId;
+    private int memberCount;
+    private int waitingCount;
+    private Long limits;
+    private TeamBuildingStatus teamBuildingStatus;
+
+    public static TeamMembersResponse fromEvent(TeamMembersChangedEvent event) {
+        return new TeamMembersResponse(
+                event.getPostId(),
+                event.getMemberCount(),
+                event.getWaitingCount(),
+                event.getLimits(),
+                event.getTeamBuildingStatus()
+        );
+    }
+}
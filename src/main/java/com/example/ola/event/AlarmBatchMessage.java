@@ -0,0 +1,31 @@
+package com.example.ola.event;
+
+import com.example.ola.dto.AlarmDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * AlarmBus 노드 간 메시지, 한 노드에서 모아 보낸 알람과 팀 모집 게시글 채널 이벤트 묶음
+ * sequence 는 보낸 노드에서 발행 순서대로 1 부터 매기며, 받는 쪽은 빈 번호로 유실을 알아챈다.
+ * 채널 이벤트는 현재 상태만 담으므로 번호를 매기지 않는다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class AlarmBatchMessage {
+    private String origin;
+    private List<Item> alarms;
+    private List<TeamMembersChangedEvent> channels;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor(staticName = "of")
+    public static class Item {
+        private AlarmDto alarm;
+        private Long userId;
+        private long sequence;
+    }
+}
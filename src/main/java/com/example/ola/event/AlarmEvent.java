@@ -0,0 +1,36 @@
+package com.example.ola.event;
+
+import com.example.ola.dto.AlarmDto;
+import lombok.Getter;
+
+/**
+ * 알람 저장 후 발행되는 이벤트, 트랜잭션이 커밋된 뒤에 전송된다.
+ * 클라이언트가 목록을 다시 조회하지 않도록 알람 내용을 함께 담는다.
+ * remote 는 다른 노드에서 저장되어 AlarmBus 로 받은 알람이다.
+ */
+@Getter
+public class AlarmEvent {
+    private final AlarmDto alarm;
+    private final Long userId;
+    private final boolean remote;
+    private final long publishedAtNanos;
+
+    private AlarmEvent(AlarmDto alarm, Long userId, boolean remote) {
+        this.alarm = alarm;
+        this.userId = userId;
+        this.remote = remote;
+        this.publishedAtNanos = System.nanoTime();
+    }
+
+    public static AlarmEvent of(AlarmDto alarm, Long userId) {
+        return new AlarmEvent(alarm, userId, false);
+    }
+
+    public static AlarmEvent remote(AlarmDto alarm, Long userId) {
+        return new AlarmEvent(alarm, userId, true);
+    }
+
+    public Long getAlarmId() {
+        return alarm.getId();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ola.event;
+
+import com.example.ola.domain.AlarmType;
+import com.example.ola.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 묶어서 저장할 알람 요청, 커밋된 뒤 AlarmCoalescer 가 같은 (수신자, 게시물, 타입) 끼리 합친다.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class AlarmRequestedEvent {
+    private final User receiver;
+    private final Long postId;
+    private final String fromUser;
+    private final AlarmType alarmType;
+}
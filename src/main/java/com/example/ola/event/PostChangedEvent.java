@@ -0,0 +1,45 @@
+package com.example.ola.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 게시글 작성 / 수정 / 삭제 이벤트, 커밋된 뒤에 게시글 수, 검색 색인에 반영된다.
+ * dtype 은 Post 의 판별 값("post", "T") 이고, 삭제 이벤트에는 제목 / 본문을 담지 않는다.
+ * place 는 팀 빌딩 게시글 헬스장의 도로명 주소이며, null 이면 장소 색인은 그대로 둔다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PostChangedEvent {
+    public enum Type {
+        WRITTEN, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long postId;
+    private final String dtype;
+    private final String title;
+    private final String content;
+    private final String place;
+
+    public static PostChangedEvent written(Long postId, String dtype, String title, String content) {
+        return written(postId, dtype, title, content, null);
+    }
+
+    public static PostChangedEvent written(Long postId, String dtype, String title, String content, String place) {
+        return new PostChangedEvent(Type.WRITTEN, postId, dtype, title, content, place);
+    }
+
+    public static PostChangedEvent updated(Long postId, String dtype, String title, String content) {
+        return updated(postId, dtype, title, content, null);
+    }
+
+    public static PostChangedEvent updated(Long postId, String dtype, String title, String content, String place) {
+        return new PostChangedEvent(Type.UPDATED, postId, dtype, title, content, place);
+    }
+
+    public static PostChangedEvent deleted(Long postId, String dtype) {
+        return new PostChangedEvent(Type.DELETED, postId, dtype, null, null, null);
+    }
+}
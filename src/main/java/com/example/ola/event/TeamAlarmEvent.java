@@ -0,0 +1,15 @@
+package com.example.ola.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 팀 모집 게시글의 멤버 / 대기열 전체에 보내는 알람 묶음, 커밋된 뒤 AlarmBus 로 한 번에 발행된다.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class TeamAlarmEvent {
+    private final List<AlarmEvent> alarms;
+}
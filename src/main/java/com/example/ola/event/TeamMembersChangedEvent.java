@@ -0,0 +1,31 @@
+package com.example.ola.event;
+
+import com.example.ola.domain.TeamBuildingPost;
+import com.example.ola.domain.TeamBuildingStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 팀 모집 게시글의 멤버 / 대기열 / 상태가 바뀌었을 때 발행되는 이벤트, 커밋된 뒤에 채널 구독자에게 전송된다.
+ * 다른 노드의 구독자에게도 보내도록 AlarmBus 메시지에 그대로 담는다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE, force = true)
+@AllArgsConstructor(staticName = "of")
+public class TeamMembersChangedEvent {
+    private final Long postId;
+    private final int memberCount;
+    private final int waitingCount;
+    private final Long limits;
+    private final TeamBuildingStatus teamBuildingStatus;
+
+    public static TeamMembersChangedEvent fromPost(TeamBuildingPost post) {
+        return of(post.getId(),
+                post.getMembers().size(),
+                post.getWaitLists().size(),
+                post.getLimits(),
+                post.getTeamBuildingStatus());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ola.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 알람 읽음 / 삭제로 읽지 않은 알람 수가 바뀌었을 때 발행되는 이벤트, 커밋된 뒤에 반영된다.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class UnreadCountChangedEvent {
+    private final Long userId;
+    private final long delta;
+}
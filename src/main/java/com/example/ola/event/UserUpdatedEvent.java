@@ -0,0 +1,10 @@
+package com.example.ola.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class UserUpdatedEvent {
+    private final String username;
+}
@@ -11,6 +11,7 @@ public enum ErrorCode {
     DUPLICATED_MEMBER(HttpStatus.CONFLICT, "User name is duplicated"),
     BAD_REQUEST(HttpStatus.BAD_REQUEST, "Bad request"),
     INVALID_PASSWORD(HttpStatus.UNAUTHORIZED, "invalid password"),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid token"),
     UNAUTHORIZED_BEHAVIOR(HttpStatus.UNAUTHORIZED, "Unauthorized behavior"),
     POST_NOT_FOUND(HttpStatus.NOT_FOUND, "Post not found"),
     COMMENT_NOT_FOUND(HttpStatus.NOT_FOUND, "Comment not found"),
@@ -19,6 +20,8 @@ public enum ErrorCode {
     INVALID_KEYWORD(HttpStatus.INTERNAL_SERVER_ERROR, "Invalid keyword"),
     MEMBERS_NOT_ENOUGH(HttpStatus.BAD_REQUEST, "Not enough members"),
     DOCUMENT_CONNECT_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Document connect error"),
+    SERVER_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests"),
     ;
 
     private HttpStatus status;
@@ -1,6 +1,7 @@
 package com.example.ola.exception;
 
 import com.example.ola.dto.response.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,10 +11,16 @@ import org.springframework.web.client.HttpClientErrorException;
 
 @RestControllerAdvice
 public class GlobalControllerAdvice {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler(OlaApplicationException.class)
     public ResponseEntity<?> applicationHandler(OlaApplicationException e) {
-        return ResponseEntity.status(e.getErrorCode().getStatus())
-                .body(Response.error(e.getErrorCode().name()));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(e.getErrorCode().getStatus());
+        if (e.getErrorCode().getStatus() == HttpStatus.SERVICE_UNAVAILABLE
+                || e.getErrorCode().getStatus() == HttpStatus.TOO_MANY_REQUESTS) { // 과부하로 거절된 요청은 재시도 시점을 알려준다.
+            builder.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        return builder.body(Response.error(e.getErrorCode().name()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -1,5 +1,6 @@
 package com.example.ola.jwt;
 
+import com.example.ola.exception.OlaApplicationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,8 +35,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             jwt = resolveToken(request);
         }
 
-        if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(jwt);
+        TokenVerification verification = StringUtils.hasText(jwt) ? jwtTokenProvider.verifyAccessToken(jwt) : null;
+        Authentication authentication = verification != null && verification.isValid() ? authenticate(verification) : null;
+        if (authentication != null) {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             log.info("it has a auth {}", authentication.getName());
         } else {
@@ -44,6 +46,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * principal claims 가 없거나 버전이 다른 토큰은 DB 에서 유저를 찾는다.
+     * 그 사이 탈퇴한 유저면 인증하지 않고 넘겨 인가 단계에서 거절되게 한다.
+     */
+    private Authentication authenticate(TokenVerification verification) {
+        try {
+            return jwtTokenProvider.getAuthentication(verification.getClaims());
+        } catch (OlaApplicationException e) {
+            log.info("token user not found: {}", verification.getClaims().getSubject());
+            return null;
+        }
+    }
+
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
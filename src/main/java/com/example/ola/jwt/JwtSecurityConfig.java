@@ -1,5 +1,7 @@
 package com.example.ola.jwt;
 
+import com.example.ola.config.RateLimitFilter;
+import com.example.ola.config.SseAdmissionFilter;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
@@ -7,9 +9,13 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
     private JwtTokenProvider jwtTokenProvider;
+    private RateLimitFilter rateLimitFilter;
+    private SseAdmissionFilter sseAdmissionFilter;
 
-    public JwtSecurityConfig(JwtTokenProvider jwtTokenProvider) {
+    public JwtSecurityConfig(JwtTokenProvider jwtTokenProvider, RateLimitFilter rateLimitFilter, SseAdmissionFilter sseAdmissionFilter) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.rateLimitFilter = rateLimitFilter;
+        this.sseAdmissionFilter = sseAdmissionFilter;
     }
 
     @Override
@@ -18,6 +24,8 @@ public class JwtSecurityConfig extends SecurityConfigurerAdapter<DefaultSecurity
                 new JwtAuthenticationFilter(jwtTokenProvider),
                 UsernamePasswordAuthenticationFilter.class
         );
+        builder.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class); // 인증 전에 요청 수부터 제한한다.
+        builder.addFilterAfter(sseAdmissionFilter, JwtAuthenticationFilter.class); // 로그인 여부를 알아야 수락 몫을 나눌 수 있다.
     }
 }
 
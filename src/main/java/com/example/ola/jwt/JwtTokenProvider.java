@@ -1,5 +1,6 @@
 package com.example.ola.jwt;
 
+import com.example.ola.dto.security.UserPrincipal;
 import com.example.ola.service.CustomUserDetailService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -16,68 +17,203 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Component
 public class JwtTokenProvider implements InitializingBean {
+    private static final String TOKEN_TYPE = "typ";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String FAMILY_ID = "fid";
+
     private final String secret;
     private final Long tokenValidityMilliseconds;
+    private final Long refreshTokenValidityMilliseconds;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final boolean statelessPrincipal;
+    private final Long statelessTokenValidityMilliseconds;
     private Key key;
+    private JwtParser jwtParser;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.token-validity-in-seconds}") Long tokenValidityMilliseconds,
-            CustomUserDetailService customUserDetailService) {
+            @Value("${jwt.token-validity-in-seconds}") Long tokenValidityInSeconds,
+            @Value("${jwt.refresh-token-validity-in-seconds:1209600}") Long refreshTokenValidityInSeconds,
+            @Value("${jwt.stateless-principal.enabled:false}") boolean statelessPrincipal,
+            @Value("${jwt.stateless-principal.token-validity-in-seconds:900}") Long statelessTokenValidityInSeconds,
+            CustomUserDetailService customUserDetailService,
+            UserPrincipalCache userPrincipalCache,
+            RevokedTokenRegistry revokedTokenRegistry) {
         this.secret = secret;
-        this.tokenValidityMilliseconds = tokenValidityMilliseconds;
+        this.tokenValidityMilliseconds = tokenValidityInSeconds * 1000;
+        this.refreshTokenValidityMilliseconds = refreshTokenValidityInSeconds * 1000;
+        this.statelessPrincipal = statelessPrincipal;
+        this.statelessTokenValidityMilliseconds = statelessTokenValidityInSeconds * 1000;
         this.userDetailsService = customUserDetailService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.revokedTokenRegistry = revokedTokenRegistry;
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build(); // 불변 객체라 스레드 간 공유한다.
     }
 
     public String createToken(String userPk, List<String> roles) {
         Claims claims = Jwts.claims().setSubject(userPk);
         claims.put("roles", roles);
+        return signToken(claims, tokenValidityMilliseconds);
+    }
+
+    /**
+     * stateless 모드면 principal claims 를 담고 짧은 만료 시간으로 발급한다.
+     * 토큰에 담긴 프로필 정보는 만료 시간 만큼만 오래될 수 있다.
+     * @param principal
+     * @param roles
+     * @return String
+     */
+    public String createToken(UserPrincipal principal, List<String> roles) {
+        if (!statelessPrincipal) {
+            return createToken(principal.getUsername(), roles);
+        }
+        Claims claims = Jwts.claims().setSubject(principal.getUsername());
+        claims.put("roles", roles);
+        PrincipalClaims.put(claims, principal);
+        return signToken(claims, statelessTokenValidityMilliseconds);
+    }
+
+    /**
+     * refresh 토큰 발급, 회전할 때마다 새 id 를 받고 최초 로그인의 family id 를 이어받는다.
+     * @param userPk
+     * @param familyId
+     * @return String
+     */
+    public String createRefreshToken(String userPk, String familyId) {
+        Claims claims = Jwts.claims().setSubject(userPk).setId(UUID.randomUUID().toString());
+        claims.put(TOKEN_TYPE, REFRESH_TOKEN_TYPE);
+        claims.put(FAMILY_ID, familyId);
+        return signToken(claims, refreshTokenValidityMilliseconds);
+    }
+
+    public String createRefreshToken(String userPk) {
+        return createRefreshToken(userPk, UUID.randomUUID().toString());
+    }
+
+    public String getFamilyId(Claims claims) {
+        return claims.get(FAMILY_ID, String.class);
+    }
+
+    /**
+     * family 가 가질 수 있는 가장 늦은 만료 시각, family 폐기 기록은 이 시각까지 유지한다.
+     * @return Date
+     */
+    public Date getFamilyExpiration() {
+        return new Date(System.currentTimeMillis() + refreshTokenValidityMilliseconds);
+    }
+
+    private String signToken(Claims claims, Long validityMilliseconds) {
         Date now = new Date();
         return Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(now)
-                .setExpiration(new Date(now.getTime() + tokenValidityMilliseconds))
+                .setExpiration(new Date(now.getTime() + validityMilliseconds))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUserPk(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
-    }
-
-    public boolean validateToken(String token) {
+    /**
+     * 토큰을 한 번만 파싱하고 서명을 검증한다.
+     * @param token
+     * @return TokenVerification
+     */
+    public TokenVerification verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return TokenVerification.success(jwtParser.parseClaimsJws(token).getBody());
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            log.info("잘못된 JWT 서명입니다.");
+            return fail(TokenVerification.Failure.INVALID_SIGNATURE);
         } catch (ExpiredJwtException e) {
-            log.info("만료된 JWT 토큰입니다.");
+            return fail(TokenVerification.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
-            log.info("지원되지 않는 JWT 토큰입니다.");
+            return fail(TokenVerification.Failure.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
-            log.info("JWT 토큰이 잘못되었습니다.");
+            return fail(TokenVerification.Failure.ILLEGAL_ARGUMENT);
+        }
+    }
+
+    /**
+     * access 토큰 검증, refresh 토큰은 access 토큰으로 쓸 수 없다.
+     * @param token
+     * @return TokenVerification
+     */
+    public TokenVerification verifyAccessToken(String token) {
+        TokenVerification verification = verify(token);
+        if (verification.isValid() && isRefreshToken(verification.getClaims())) {
+            return fail(TokenVerification.Failure.UNSUPPORTED);
+        }
+        return verification;
+    }
+
+    /**
+     * refresh 토큰 검증, 토큰 id 나 family 가 폐기되었으면 REVOKED 로 실패한다.
+     * 다른 노드에서 막 폐기된 family 도 바로 막도록 filter 가 아닌 DB 로 확인한다.
+     * @param token
+     * @return TokenVerification
+     */
+    public TokenVerification verifyRefreshToken(String token) {
+        TokenVerification verification = verify(token);
+        if (!verification.isValid()) {
+            return verification;
+        }
+        Claims claims = verification.getClaims();
+        if (!isRefreshToken(claims)) {
+            return fail(TokenVerification.Failure.UNSUPPORTED);
         }
-        return false;
+        if (revokedTokenRegistry.isRevokedInStore(claims.getId(), getFamilyId(claims))) {
+            return TokenVerification.revoked(claims);
+        }
+        return verification;
+    }
+
+    private boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE, String.class));
+    }
+
+    private TokenVerification fail(TokenVerification.Failure failure) {
+        log.info(failure.getMessage());
+        return TokenVerification.fail(failure);
+    }
+
+    /**
+     * 검증된 claims 로 principal 을 만든다.
+     * 현재 버전의 principal claims 가 있으면 토큰만으로, 아니면 캐시 또는 DB 에서 조회한다.
+     * @param claims
+     * @return Authentication
+     */
+    public Authentication getAuthentication(Claims claims) {
+        if (PrincipalClaims.isCurrent(claims)) {
+            UserPrincipal principal = PrincipalClaims.toPrincipal(claims);
+            return new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities());
+        }
+        UserDetails userDetails = userPrincipalCache.get(
+                claims.getSubject(),
+                username -> (UserPrincipal) userDetailsService.loadUserByUsername(username));
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+
+    public Authentication getAuthentication(String token) {
+        return getAuthentication(jwtParser.parseClaimsJws(token).getBody());
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isValid();
     }
 
     public String getUserPk(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
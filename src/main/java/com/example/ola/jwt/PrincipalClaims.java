@@ -0,0 +1,107 @@
+package com.example.ola.jwt;
+
+import com.example.ola.dto.HomeGymDto;
+import com.example.ola.dto.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 토큰에 담는 principal claims
+ * 컨트롤러가 사용하는 유저 정보를 토큰에 넣어 DB 조회 없이 UserPrincipal 을 만든다.
+ * 형식이 바뀌면 VERSION 을 올린다. 버전이 다른 토큰은 DB 조회로 처리된다.
+ */
+public class PrincipalClaims {
+    public static final int VERSION = 1;
+
+    private static final String VERSION_KEY = "pcv";
+    private static final String ID = "uid";
+    private static final String IMG_URI = "img";
+    private static final String NICKNAME = "nick";
+    private static final String NAME = "name";
+    private static final String AGE_RANGE = "age";
+    private static final String GENDER = "gender";
+    private static final String HOME_GYM = "gym";
+    private static final String AUTHORITIES = "auth";
+
+    private PrincipalClaims() {
+    }
+
+    public static void put(Claims claims, UserPrincipal principal) {
+        claims.put(VERSION_KEY, VERSION);
+        claims.put(ID, principal.getId());
+        claims.put(IMG_URI, principal.getImgUri());
+        claims.put(NICKNAME, principal.getNickname());
+        claims.put(NAME, principal.getName());
+        claims.put(AGE_RANGE, principal.getAgeRange());
+        claims.put(GENDER, principal.getUserGender());
+        claims.put(HOME_GYM, homeGymToMap(principal.getHomeGym()));
+        claims.put(AUTHORITIES, principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+    }
+
+    public static boolean isCurrent(Claims claims) {
+        Integer version = claims.get(VERSION_KEY, Integer.class);
+        return version != null && version == VERSION;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static UserPrincipal toPrincipal(Claims claims) {
+        List<String> authorities = claims.get(AUTHORITIES, List.class);
+        return UserPrincipal.builder()
+                .id(claims.get(ID, Long.class))
+                .username(claims.getSubject())
+                .imgUri(claims.get(IMG_URI, String.class))
+                .password("")
+                .nickname(claims.get(NICKNAME, String.class))
+                .name(claims.get(NAME, String.class))
+                .ageRange(claims.get(AGE_RANGE, Long.class))
+                .userGender(claims.get(GENDER, String.class))
+                .homeGym(homeGymFromMap(claims.get(HOME_GYM, Map.class)))
+                .authorities(authorities.stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toUnmodifiableSet()))
+                .build();
+    }
+
+    private static Map<String, Object> homeGymToMap(HomeGymDto homeGym) {
+        if (homeGym == null) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", homeGym.getId());
+        map.put("placeName", homeGym.getPlaceName());
+        map.put("roadAddressName", homeGym.getRoadAddressName());
+        map.put("categoryName", homeGym.getCategoryName());
+        map.put("x", homeGym.getX());
+        map.put("y", homeGym.getY());
+        return map;
+    }
+
+    private static HomeGymDto homeGymFromMap(Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        return new HomeGymDto(
+                toLong(map.get("id")),
+                (String) map.get("placeName"),
+                (String) map.get("roadAddressName"),
+                (String) map.get("categoryName"),
+                toDouble(map.get("x")),
+                toDouble(map.get("y")));
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Double toDouble(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+}
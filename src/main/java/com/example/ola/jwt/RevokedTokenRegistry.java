@@ -0,0 +1,147 @@
+package com.example.ola.jwt;
+
+import com.example.ola.domain.RevokedToken;
+import com.example.ola.repository.RevokedTokenRepository;
+import com.example.ola.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 폐기된 토큰 id 저장소
+ * DB 테이블이 원본이고, 요청마다 DB 를 조회하지 않도록 Bloom filter 를 앞에 둔다.
+ * filter 에 없으면 바로 통과시키고, 있다고 나올 때만 DB 로 확인한다.
+ * 다른 노드에서 폐기된 토큰은 다음 sync 까지(sync-interval-ms) filter 에 없으므로,
+ * 그 사이 놓치면 안 되는 refresh 토큰 재사용 감지는 isRevokedInStore 로 DB 를 직접 확인한다.
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry {
+    private static final int LOAD_SIZE = 1000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final long syncOverlapMillis;
+    private final Counter falsePositiveCounter;
+    private volatile BloomFilter bloomFilter;
+    private volatile Timestamp syncedAt = new Timestamp(0L);
+
+    public RevokedTokenRegistry(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+            @Value("${jwt.revocation.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${jwt.revocation.sync-overlap-ms:60000}") long syncOverlapMillis,
+            MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.syncOverlapMillis = syncOverlapMillis;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.falsePositiveCounter = meterRegistry.counter("jwt.revocation.false.positive");
+    }
+
+    /**
+     * 폐기 여부 확인, filter 에 걸린 경우에만 DB 를 조회한다.
+     * @param tokenId
+     * @return boolean
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        boolean revoked = revokedTokenRepository.existsByTokenId(tokenId);
+        if (!revoked) {
+            falsePositiveCounter.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * filter 를 거치지 않고 DB 에서 하나라도 폐기되었는지 확인한다. 아직 동기화되지 않은 다른 노드의 폐기도 보인다.
+     * refresh 처럼 드물게 호출되고 노드 간 지연이 곧 탈취 허용이 되는 경로에서만 쓴다.
+     * @param tokenIds
+     * @return boolean
+     */
+    public boolean isRevokedInStore(String... tokenIds) {
+        List<String> ids = Arrays.stream(tokenIds).filter(Objects::nonNull).collect(Collectors.toList());
+        return !ids.isEmpty() && revokedTokenRepository.existsByTokenIdIn(ids);
+    }
+
+    /**
+     * 토큰 폐기, 이미 폐기된 id 면 유니크 제약 위반 예외가 발생한다.
+     * 호출한 트랜잭션이 롤백되어도 폐기 기록은 남도록 별도 트랜잭션으로 저장한다.
+     * @param tokenId
+     * @param expiredAt
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revoke(String tokenId, Date expiredAt) {
+        revokedTokenRepository.save(RevokedToken.of(tokenId, new Timestamp(expiredAt.getTime())));
+        bloomFilter.put(tokenId);
+    }
+
+    /**
+     * 만료된 폐기 기록을 지우고 filter 를 새로 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    @Transactional
+    public synchronized void rebuild() {
+        Timestamp now = Timestamp.from(Instant.now());
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        long lastId = 0L;
+        List<RevokedToken> tokens;
+        do {
+            tokens = revokedTokenRepository.findNotExpiredAfterId(lastId, now, LOAD_SIZE);
+            lastId = put(filter, tokens, lastId);
+        } while (tokens.size() == LOAD_SIZE);
+        bloomFilter = filter;
+        syncedAt = now;
+        log.info("revoked token filter rebuilt, deleted expired : {}", deleted);
+    }
+
+    /**
+     * 다른 노드에서 폐기된 토큰을 filter 에 반영한다.
+     * IDENTITY id 는 커밋 순서와 다르게 보일 수 있어 마지막 id 부터 읽으면 늦게 커밋된 행을 건너뛴다.
+     * 그래서 지난 동기화 시각에서 syncOverlapMillis 만큼 겹쳐 다시 읽는다. 같은 id 를 다시 넣어도 filter 는 그대로다.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public synchronized void sync() {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp since = new Timestamp(syncedAt.getTime() - syncOverlapMillis);
+        BloomFilter filter = bloomFilter;
+        long lastId = 0L;
+        List<RevokedToken> tokens;
+        do {
+            tokens = revokedTokenRepository.findNotExpiredRegisteredSince(since, lastId, now, LOAD_SIZE);
+            lastId = put(filter, tokens, lastId);
+        } while (tokens.size() == LOAD_SIZE);
+        syncedAt = now;
+    }
+
+    private static long put(BloomFilter filter, List<RevokedToken> tokens, long lastId) {
+        for (RevokedToken token : tokens) {
+            filter.put(token.getTokenId());
+            lastId = token.getId();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ola.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 토큰 검증 결과 : 성공하면 파싱된 claims, 실패하면 실패 사유를 담는다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenVerification {
+    private final Claims claims;
+    private final Failure failure;
+
+    public static TokenVerification success(Claims claims) {
+        return new TokenVerification(claims, null);
+    }
+
+    public static TokenVerification fail(Failure failure) {
+        return new TokenVerification(null, failure);
+    }
+
+    /**
+     * 서명은 유효하지만 폐기된 토큰, 재사용 감지를 위해 claims 를 함께 담는다.
+     * @param claims
+     * @return TokenVerification
+     */
+    public static TokenVerification revoked(Claims claims) {
+        return new TokenVerification(claims, Failure.REVOKED);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum Failure {
+        INVALID_SIGNATURE("잘못된 JWT 서명입니다."),
+        EXPIRED("만료된 JWT 토큰입니다."),
+        UNSUPPORTED("지원되지 않는 JWT 토큰입니다."),
+        ILLEGAL_ARGUMENT("JWT 토큰이 잘못되었습니다."),
+        REVOKED("폐기된 JWT 토큰입니다."),
+        ;
+
+        private final String message;
+    }
+}
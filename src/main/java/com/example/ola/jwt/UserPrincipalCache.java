@@ -0,0 +1,63 @@
+package com.example.ola.jwt;
+
+import com.example.ola.dto.security.UserPrincipal;
+import com.example.ola.event.UserUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 토큰 subject(username) 별 UserPrincipal 캐시
+ * 인증된 요청마다 DB 에서 유저를 다시 조회하지 않도록 크기와 TTL 이 제한된 캐시를 둔다.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+    private static final String CACHE_NAME = "userPrincipal";
+    private final Cache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(
+            @Value("${jwt.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.principal-cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 캐시된 principal 반환, 없으면 loader 로 한 번만 적재한다.
+     * @param username
+     * @param loader
+     * @return UserPrincipal
+     */
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * 유저 정보 수정이 커밋된 뒤에 캐시를 비운다.
+     * 커밋 전에 비우면 동시 요청이 이전 값을 다시 적재할 수 있다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.getUsername());
+    }
+}
@@ -2,32 +2,218 @@ package com.example.ola.repository;
 
 import com.example.ola.domain.Alarm;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RequiredArgsConstructor
 @Repository
 public class AlarmRepository {
+    private static final int BATCH_SIZE = 100;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO alarm (user_id, post_id, from_user, alarm_type, actor_count, registered_at) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?)";
+
     private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
 
     public Alarm save(Alarm alarm) {
         em.persist(alarm);
         return alarm;
     }
 
+    /**
+     * 여러 알람을 multi-row INSERT 로 저장한다.
+     * IDENTITY 전략은 Hibernate batch insert 가 꺼지므로 JDBC 로 BATCH_SIZE 개씩 한 문장에 담는다.
+     * 저장된 알람은 영속성 컨텍스트에 올라가지 않고, 입력 순서대로 생성된 id 를 반환한다.
+     * @param alarms
+     * @return List<Long>
+     */
+    public List<Long> saveAll(List<Alarm> alarms) {
+        List<Long> ids = new ArrayList<>(alarms.size());
+        for (int from = 0; from < alarms.size(); from += BATCH_SIZE) {
+            ids.addAll(insertChunk(alarms.subList(from, Math.min(from + BATCH_SIZE, alarms.size()))));
+        }
+        return ids;
+    }
+
+    private List<Long> insertChunk(List<Alarm> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? VALUES_ROW : ", " + VALUES_ROW);
+        }
+        Timestamp registeredAt = Timestamp.from(Instant.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+            int index = 1;
+            for (Alarm alarm : chunk) {
+                ps.setLong(index++, alarm.getUser().getId());
+                ps.setLong(index++, alarm.getArgs().getPostId());
+                ps.setString(index++, alarm.getArgs().getFromUser());
+                ps.setString(index++, alarm.getAlarmType().name());
+                ps.setInt(index++, alarm.getActorCount());
+                ps.setTimestamp(index++, registeredAt);
+            }
+            return ps;
+        }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
     public Optional<Alarm> findById(Long alarmId) {
         return Optional.ofNullable(em.find(Alarm.class, alarmId));
     }
 
-    public Optional<List<Alarm>> findByUsername(String username) {
-        return Optional.ofNullable(em.createQuery("select a from Alarm a" +
-                                " join fetch a.user" +
-                                " where a.user.username=:username")
-                        .setParameter("username", username)
-                        .getResultList());
+    /**
+     * userId 의 알람을 id 내림차순으로 cursor 미만에서 size 개 조회한다.
+     * (user_id, deleted_at, id) 인덱스의 범위 조회로 처리된다.
+     * @param userId
+     * @param cursor
+     * @param size
+     * @return List<Alarm>
+     */
+    public List<Alarm> findByUserId(Long userId, Long cursor, int size) {
+        return em.createQuery("select a from Alarm a" +
+                        " join fetch a.user" +
+                        " where a.user.id=:userId and a.id<:cursor" +
+                        " order by a.id desc", Alarm.class)
+                .setParameter("userId", userId)
+                .setParameter("cursor", cursor)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * 읽지 않은 알람 수와 그 시점의 가장 큰 알람 id 를 한 쿼리로 센다. 알람이 없으면 {0, 0}
+     * @param userId
+     * @return long[] {count, maxId}
+     */
+    public long[] countUnreadWithMaxId(Long userId) {
+        Object[] row = em.createQuery("select sum(case when a.readAt is null then 1 else 0 end), max(a.id) from Alarm a" +
+                        " where a.user.id=:userId", Object[].class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        if (row[1] == null) {
+            return new long[]{0, 0};
+        }
+        return new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()};
+    }
+
+    /**
+     * 여러 유저의 읽지 않은 알람 수를 한 번에 센다. 읽지 않은 알람이 없는 유저는 결과에 없다.
+     * @param userIds
+     * @return Map<Long, Long>
+     */
+    public Map<Long, Long> countUnreadByUserIds(Collection<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        em.createQuery("select a.user.id, count(a) from Alarm a" +
+                        " where a.user.id in :userIds and a.readAt is null" +
+                        " group by a.user.id", Object[].class)
+                .setParameter("userIds", userIds)
+                .getResultList()
+                .forEach(row -> counts.put((Long) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    /**
+     * 게시글에 달린 읽지 않은 알람 수를 유저별로 센다. 게시글 삭제 전에 카운터에서 뺄 수를 구할 때 사용한다.
+     * @param postId
+     * @return Map<Long, Long>
+     */
+    public Map<Long, Long> countUnreadByPostId(Long postId) {
+        Map<Long, Long> counts = new HashMap<>();
+        em.createQuery("select a.user.id, count(a) from Alarm a" +
+                        " where a.args.postId=:postId and a.deletedAt is null and a.readAt is null" +
+                        " group by a.user.id", Object[].class)
+                .setParameter("postId", postId)
+                .getResultList()
+                .forEach(row -> counts.put((Long) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    /**
+     * userId 의 알람 중 id 가 upTo 이하이고 읽지 않은 알람을 한 번에 읽음 처리한다.
+     * @param userId
+     * @param upTo
+     * @return int
+     */
+    public int markReadUpTo(Long userId, Long upTo) {
+        return em.createQuery("UPDATE Alarm a SET a.readAt = CURRENT_TIMESTAMP" +
+                        " where a.user.id=:userId and a.deletedAt is null and a.id<=:upTo and a.readAt is null")
+                .setParameter("userId", userId)
+                .setParameter("upTo", upTo)
+                .executeUpdate();
+    }
+
+    /**
+     * userId 의 알람 중 id 가 lastId 보다 큰 알람을 오름차순으로 limit 개 조회한다.
+     * user_id 인덱스가 PK 를 포함하므로 (user_id, id) 범위 조회로 처리된다.
+     * @param userId
+     * @param lastId
+     * @param limit
+     * @return List<Alarm>
+     */
+    public List<Alarm> findByUserIdAfter(Long userId, Long lastId, int limit) {
+        return em.createQuery("select a from Alarm a" +
+                        " join fetch a.user" +
+                        " where a.user.id=:userId and a.id>:lastId" +
+                        " order by a.id", Alarm.class)
+                .setParameter("userId", userId)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 삭제된 알람을 포함한 id 범위, 알람이 없으면 empty
+     * @return Optional<long[]> {min, max}
+     */
+    public Optional<long[]> findIdRange() {
+        Object[] row = (Object[]) em.createNativeQuery("SELECT MIN(id), MAX(id) FROM alarm")
+                .getSingleResult();
+        if (row[0] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()});
+    }
+
+    /**
+     * fromId 초과 toId 이하 범위에서 deletedBefore 이전에 soft delete 되었거나
+     * registeredBefore 이전에 등록된 알람을 물리 삭제한다.
+     * PK 범위로 제한해 한 번에 잠그는 행 수를 batch 크기 이하로 유지한다.
+     * @param fromId
+     * @param toId
+     * @param deletedBefore
+     * @param registeredBefore
+     * @return int
+     */
+    public int purgeInRange(long fromId, long toId, Timestamp deletedBefore, Timestamp registeredBefore) {
+        return em.createNativeQuery("DELETE FROM alarm" +
+                        " WHERE id > :fromId AND id <= :toId" +
+                        " AND (deleted_at < :deletedBefore OR registered_at < :registeredBefore)")
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setParameter("deletedBefore", deletedBefore)
+                .setParameter("registeredBefore", registeredBefore)
+                .executeUpdate();
     }
 
     public void remove(Alarm alarm) {
@@ -4,37 +4,125 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * userId 별 SseEmitter 저장소
+ * 한 유저가 여러 탭에서 연결할 수 있도록 userId 마다 emitter 집합을 둔다.
+ * 팀 모집 게시글 채널은 postId 마다 구독 emitter 집합을 두어, 한 번의 발행이 집합을 그대로 순회한다.
+ * 요청 스레드와 emitter 콜백 스레드가 동시에 접근하므로 집합의 생성, 삭제는 compute 안에서 원자적으로 처리한다.
+ */
 @Slf4j
 @Repository
 public class EmitterRepository {
 
-    private Map<String, SseEmitter> emitterMap = new HashMap<>();
+    private final Map<Long, Set<SseEmitter>> emitterMap = new ConcurrentHashMap<>();
+    private final AtomicInteger emitterCount = new AtomicInteger();
+    private final Map<Long, Set<SseEmitter>> channelMap = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
     private final static Long DEFAULT_TIMEOUT = 60L * 1000 * 60;
+    private final static Long CHANNEL_TIMEOUT = 5L * 1000 * 60; // 로그인 없이 열 수 있어 짧게 두고, 끊기면 브라우저가 다시 구독한다.
 
+    /**
+     * 새 emitter 등록, 완료 / 타임아웃 / 에러 시 해당 emitter 만 제거된다.
+     * @param userId
+     * @return SseEmitter
+     */
     public SseEmitter save(Long userId) {
-        final String key = getKey(userId);
         SseEmitter sseEmitter = new SseEmitter(DEFAULT_TIMEOUT);
-        emitterMap.put(key, sseEmitter);
+        add(emitterMap, emitterCount, userId, sseEmitter);
+        sseEmitter.onCompletion(() -> delete(userId, sseEmitter));
+        sseEmitter.onTimeout(() -> delete(userId, sseEmitter));
+        sseEmitter.onError(e -> delete(userId, sseEmitter));
         return sseEmitter;
     }
 
-    public Optional<SseEmitter> get(Long userId) {
-        final String key = getKey(userId);
-        return Optional.ofNullable(emitterMap.get(key));
+    public Collection<SseEmitter> get(Long userId) {
+        Set<SseEmitter> emitters = emitterMap.get(userId);
+        return emitters == null ? List.of() : emitters;
     }
 
-    public void delete(Long userId) {
-        emitterMap.remove(getKey(userId));
+    public void delete(Long userId, SseEmitter sseEmitter) {
+        remove(emitterMap, emitterCount, userId, sseEmitter);
     }
 
-    public String getKey(Long userId) {
-        return "Emiiter:UID" + userId;
+    /**
+     * 팀 모집 게시글 채널 구독, 완료 / 타임아웃 / 에러 시 구독이 해제된다.
+     * @param postId
+     * @return SseEmitter
+     */
+    public SseEmitter subscribe(Long postId) {
+        SseEmitter sseEmitter = new SseEmitter(CHANNEL_TIMEOUT);
+        add(channelMap, subscriberCount, postId, sseEmitter);
+        sseEmitter.onCompletion(() -> unsubscribe(postId, sseEmitter));
+        sseEmitter.onTimeout(() -> unsubscribe(postId, sseEmitter));
+        sseEmitter.onError(e -> unsubscribe(postId, sseEmitter));
+        return sseEmitter;
+    }
+
+    public Collection<SseEmitter> getSubscribers(Long postId) {
+        Set<SseEmitter> emitters = channelMap.get(postId);
+        return emitters == null ? List.of() : emitters;
+    }
+
+    public void unsubscribe(Long postId, SseEmitter sseEmitter) {
+        remove(channelMap, subscriberCount, postId, sseEmitter);
+    }
+
+    private void add(Map<Long, Set<SseEmitter>> map, AtomicInteger counter, Long key, SseEmitter sseEmitter) {
+        map.compute(key, (k, emitters) -> {
+            Set<SseEmitter> result = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+            if (result.add(sseEmitter)) {
+                counter.incrementAndGet();
+            }
+            return result;
+        });
+    }
+
+    private void remove(Map<Long, Set<SseEmitter>> map, AtomicInteger counter, Long key, SseEmitter sseEmitter) {
+        map.computeIfPresent(key, (k, emitters) -> {
+            if (emitters.remove(sseEmitter)) { // 콜백과 전송 실패로 여러 번 불려도 한 번만 센다.
+                counter.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * 현재 등록된 모든 (userId, emitter) 의 복사본, heartbeat 처럼 전체를 순회할 때 사용한다.
+     * @return List<Map.Entry<Long, SseEmitter>>
+     */
+    public List<Map.Entry<Long, SseEmitter>> snapshot() {
+        return snapshot(emitterMap, emitterCount);
+    }
+
+    /**
+     * 현재 채널 구독의 (postId, emitter) 복사본
+     * @return List<Map.Entry<Long, SseEmitter>>
+     */
+    public List<Map.Entry<Long, SseEmitter>> channelSnapshot() {
+        return snapshot(channelMap, subscriberCount);
     }
 
+    private List<Map.Entry<Long, SseEmitter>> snapshot(Map<Long, Set<SseEmitter>> map, AtomicInteger counter) {
+        List<Map.Entry<Long, SseEmitter>> entries = new ArrayList<>(counter.get());
+        map.forEach((key, emitters) ->
+                emitters.forEach(emitter -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, emitter))));
+        return entries;
+    }
 
+    public int count() {
+        return emitterCount.get();
+    }
 
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
 }
@@ -1,13 +1,17 @@
 package com.example.ola.repository;
 
 import com.example.ola.domain.Post;
+import com.example.ola.dto.PostIndexDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -41,6 +45,23 @@ public class PostRepository {
                 .getResultList());
     }
 
+    /**
+     * after 보다 작은 id 부터 10개, (dtype, deleted_at, id) 인덱스로 seek 하므로 앞 페이지를 읽고 버리지 않는다.
+     * @param after
+     * @return Optional<List<Post>>
+     */
+    public Optional<List<Post>> findAllPostsAfter(Long after) {
+        return Optional.ofNullable(em.createQuery("select p from Post p" +
+                        " join fetch p.user" +
+                        " where dtype =:post" +
+                        " and p.id < :after" +
+                        " order by p.id desc", Post.class)
+                .setParameter("post", "post")
+                .setParameter("after", after)
+                .setMaxResults(10)
+                .getResultList());
+    }
+
     public Optional<List<Post>> findAllPostsByKeyword(String keyword) {
         return Optional.ofNullable(em.createQuery("select p from Post p" +
                         " join fetch p.user" +
@@ -53,6 +74,69 @@ public class PostRepository {
                 .getResultList());
     }
 
+    /**
+     * id 순서를 보장하지 않는다. 검색 결과처럼 순서가 정해진 id 목록은 호출하는 쪽에서 다시 정렬한다.
+     * @param ids
+     * @return List<Post>
+     */
+    public List<Post> findAllPostsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select p from Post p" +
+                        " join fetch p.user" +
+                        " where dtype =:post" +
+                        " and p.id in :ids", Post.class)
+                .setParameter("post", "post")
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * 팀 모집을 포함한 모든 게시글을 id 오름차순으로 size 개씩, 검색 색인을 다시 만들 때 쓴다.
+     * @param afterId
+     * @param size
+     * @return List<Post>
+     */
+    public List<Post> findAllAfterId(Long afterId, int size) {
+        return em.createQuery("select p from Post p" +
+                        " where p.id > :afterId" +
+                        " order by p.id", Post.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * since 이후에 등록 / 수정 / 삭제된 게시글을 id 순으로 size 개 조회한다. 삭제된 게시글도 포함한다.
+     * 삭제도 updated_at 을 갱신하므로 registered_at, updated_at 인덱스로 찾는다.
+     * @param since
+     * @param afterId
+     * @param size
+     * @return List<PostIndexDto>
+     */
+    @SuppressWarnings("unchecked")
+    public List<PostIndexDto> findChangedSince(Timestamp since, Long afterId, int size) {
+        List<Object[]> rows = em.createNativeQuery("SELECT p.id, p.dtype, p.title, p.content, h.road_address_name, p.deleted_at FROM post p" +
+                        " LEFT JOIN home_gym h ON h.id = p.home_gym_id" +
+                        " WHERE p.id > :afterId" +
+                        " AND (p.registered_at > :since OR p.updated_at > :since)" +
+                        " ORDER BY p.id")
+                .setParameter("afterId", afterId)
+                .setParameter("since", since)
+                .setMaxResults(size)
+                .getResultList();
+        return rows.stream()
+                .map(row -> PostIndexDto.of(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        (String) row[4],
+                        row[5] != null))
+                .collect(Collectors.toList());
+    }
+
     public Optional<List<Post>> findPostsByUsername(String username) {
         return Optional.ofNullable(em.createQuery("select p from Post p" +
                         " join fetch p.user" +
@@ -0,0 +1,105 @@
+package com.example.ola.repository;
+
+import com.example.ola.dto.AlarmDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * userId 별 최근 알람 링 버퍼
+ * SSE 재연결 시 Last-Event-ID 이후의 알람을 DB 조회 없이 다시 보내기 위해 사용한다.
+ * 유저 수는 maximumSize 로, 오래 쓰이지 않은 버퍼는 expireAfterAccess 로 제한한다.
+ * 전송이 버려졌거나 다른 노드의 알람을 놓쳐 버퍼에 빈 구간이 생기면 버퍼를 버려, 다음 재연결은 DB 에서 조회하게 한다.
+ */
+@Repository
+public class RecentAlarmRepository {
+    private final Cache<Long, AlarmRing> rings;
+    private final int bufferSize;
+
+    public RecentAlarmRepository(
+            @Value("${alarm.replay.buffer-size:32}") int bufferSize,
+            @Value("${alarm.replay.max-users:10000}") long maxUsers,
+            @Value("${alarm.replay.expire-after-access-minutes:60}") long expireAfterAccessMinutes) {
+        this.bufferSize = bufferSize;
+        this.rings = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .build();
+    }
+
+    public void add(Long userId, AlarmDto alarm) {
+        rings.get(userId, key -> new AlarmRing(bufferSize)).add(alarm);
+    }
+
+    /**
+     * 이 유저에게 보낼 알람 중 버퍼에 기록되지 못한 것이 있을 때 호출한다.
+     * @param userId
+     */
+    public void invalidate(Long userId) {
+        rings.invalidate(userId);
+    }
+
+    /**
+     * 어느 유저의 알람을 놓쳤는지 알 수 없을 때 호출한다.
+     */
+    public void invalidateAll() {
+        rings.invalidateAll();
+    }
+
+    /**
+     * id 가 lastEventId 보다 큰 알람을 id 오름차순으로 반환한다.
+     * 버퍼가 그 구간을 전부 갖고 있다고 보장할 수 없으면 empty 를 반환하고, 호출자는 DB 에서 조회한다.
+     * @param userId
+     * @param lastEventId
+     * @return Optional<List<AlarmDto>>
+     */
+    public Optional<List<AlarmDto>> findAfter(Long userId, long lastEventId) {
+        AlarmRing ring = rings.getIfPresent(userId);
+        return ring == null ? Optional.empty() : ring.after(lastEventId);
+    }
+
+    private static class AlarmRing {
+        private final AlarmDto[] alarms;
+        private int head;
+        private int size;
+        private long floor = Long.MAX_VALUE; // 버퍼가 만들어진 뒤 이 노드가 받은 알람 중 floor 보다 큰 id 는 모두 버퍼에 있다.
+
+        AlarmRing(int capacity) {
+            this.alarms = new AlarmDto[capacity];
+        }
+
+        synchronized void add(AlarmDto alarm) {
+            if (floor == Long.MAX_VALUE) {
+                floor = alarm.getId() - 1;
+            }
+            if (size == alarms.length) {
+                floor = Math.max(floor, alarms[head].getId());
+            } else {
+                size++;
+            }
+            alarms[head] = alarm;
+            head = (head + 1) % alarms.length;
+        }
+
+        synchronized Optional<List<AlarmDto>> after(long lastEventId) {
+            if (lastEventId < floor) {
+                return Optional.empty();
+            }
+            List<AlarmDto> result = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (alarms[i].getId() > lastEventId) {
+                    result.add(alarms[i]);
+                }
+            }
+            result.sort(Comparator.comparing(AlarmDto::getId));
+            return Optional.of(result);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ola.repository;
+
+import com.example.ola.domain.RevokedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Repository
+public class RevokedTokenRepository {
+    private final EntityManager em;
+
+    /**
+     * token_id 가 유니크라 같은 토큰을 두 번 폐기하면 flush 시점에 예외가 발생한다.
+     * @param revokedToken
+     * @return RevokedToken
+     */
+    public RevokedToken save(RevokedToken revokedToken) {
+        em.persist(revokedToken);
+        em.flush();
+        return revokedToken;
+    }
+
+    public boolean existsByTokenId(String tokenId) {
+        return !em.createQuery("select r.id from RevokedToken r" +
+                        " where r.tokenId=:tokenId", Long.class)
+                .setParameter("tokenId", tokenId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public boolean existsByTokenIdIn(Collection<String> tokenIds) {
+        return !em.createQuery("select r.id from RevokedToken r" +
+                        " where r.tokenId in :tokenIds", Long.class)
+                .setParameter("tokenIds", tokenIds)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    public List<RevokedToken> findNotExpiredAfterId(Long id, Timestamp now, int size) {
+        return em.createQuery("select r from RevokedToken r" +
+                        " where r.id >:id" +
+                        " and r.expiredAt >:now" +
+                        " order by r.id", RevokedToken.class)
+                .setParameter("id", id)
+                .setParameter("now", now)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * since 이후 저장된 폐기 기록, 같은 since 안에서는 id 로 이어 읽는다.
+     * @param since
+     * @param afterId
+     * @param now
+     * @param size
+     * @return List<RevokedToken>
+     */
+    public List<RevokedToken> findNotExpiredRegisteredSince(Timestamp since, Long afterId, Timestamp now, int size) {
+        return em.createQuery("select r from RevokedToken r" +
+                        " where r.registeredAt >=:since" +
+                        " and r.id >:id" +
+                        " and r.expiredAt >:now" +
+                        " order by r.id", RevokedToken.class)
+                .setParameter("since", since)
+                .setParameter("id", afterId)
+                .setParameter("now", now)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    public int deleteExpired(Timestamp now) {
+        return em.createQuery("delete from RevokedToken r" +
+                        " where r.expiredAt <=:now")
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +59,39 @@ public class TeamPostRepository {
 
     }
 
+    /**
+     * after 보다 작은 id 부터 9개, (dtype, deleted_at, id) 인덱스로 seek 한다.
+     * @param after
+     * @return Optional<List<TeamBuildingPost>>
+     */
+    public Optional<List<TeamBuildingPost>> findAllTeamPostsAfter(Long after) {
+        return Optional.ofNullable(em.createQuery("select p from TeamBuildingPost p" +
+                        " join fetch p.user" +
+                        " join fetch p.homeGym" +
+                        " where p.id < :after" +
+                        " order by p.id desc", TeamBuildingPost.class)
+                .setParameter("after", after)
+                .setMaxResults(9)
+                .getResultList());
+    }
+
+    /**
+     * id 순서를 보장하지 않는다. 검색 결과처럼 순서가 정해진 id 목록은 호출하는 쪽에서 다시 정렬한다.
+     * @param ids
+     * @return List<TeamBuildingPost>
+     */
+    public List<TeamBuildingPost> findAllTeamPostsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select p from TeamBuildingPost p" +
+                        " join fetch p.user" +
+                        " join fetch p.homeGym" +
+                        " where p.id in :ids", TeamBuildingPost.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     public Optional<List<TeamBuildingPost>> findAllTeamPostsByKeyword(String keyword) {
         return Optional.ofNullable(em.createQuery("select p from TeamBuildingPost p" +
                         " join fetch p.user" +
@@ -72,8 +106,8 @@ public class TeamPostRepository {
     public Optional<List<TeamBuildingPost>> findAllTeamPostsByPlace(String place) {
         return Optional.ofNullable(em.createQuery("select p from TeamBuildingPost p" +
                         " join fetch p.user" +
-                        " join fetch p.homeGym" +
-                        " where p.place like :place" +
+                        " join fetch p.homeGym h" +
+                        " where h.roadAddressName like :place" +
                         " order by p.id desc", TeamBuildingPost.class)
                 .setParameter("place", "%" + place + "%")
                 .setMaxResults(9)
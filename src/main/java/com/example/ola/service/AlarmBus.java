@@ -0,0 +1,27 @@
+package com.example.ola.service;
+
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+
+import java.util.List;
+
+/**
+ * 커밋된 알람과 팀 모집 게시글 채널 이벤트를 수신자가 연결된 노드로 전달하는 bus
+ * 각 노드는 자신의 EmitterRepository 에 있는 emitter 로만 전송한다.
+ * alarm.bus.type 으로 구현을 고른다. (local, redis, loopback)
+ */
+public interface AlarmBus {
+    void publish(AlarmEvent event);
+
+    /**
+     * 여러 수신자의 알람을 한 번에 발행한다. 각 노드는 하나의 전송 작업으로 처리한다.
+     * @param events
+     */
+    void publishAll(List<AlarmEvent> events);
+
+    /**
+     * 채널 이벤트는 저장하지 않는 현재 상태라 유실되어도 다음 변경에서 최신 값이 전달된다.
+     * @param event
+     */
+    void publish(TeamMembersChangedEvent event);
+}
@@ -0,0 +1,13 @@
+package com.example.ola.service;
+
+import java.util.function.Consumer;
+
+/**
+ * NetworkAlarmBus 가 사용하는 메시지 전송 계층
+ * publish 한 메시지는 자신을 포함해 subscribe 한 모든 노드에 전달된다.
+ */
+public interface AlarmBusTransport {
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,168 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.Alarm;
+import com.example.ola.domain.AlarmArgs;
+import com.example.ola.domain.AlarmType;
+import com.example.ola.domain.User;
+import com.example.ola.dto.AlarmDto;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.AlarmRequestedEvent;
+import com.example.ola.repository.AlarmRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * (수신자, 게시물, 알람 타입) 별 알람 묶음
+ * 첫 요청부터 window 동안 들어온 요청을 하나의 알람으로 합쳐 actor 수와 마지막 actor 만 남긴다.
+ * window 가 지나면 모인 알람을 한 번에 저장하고 알람마다 한 번만 전송한다.
+ * 저장 전에 프로세스가 종료되면 window 안의 알람은 유실될 수 있다.
+ */
+@Slf4j
+@Component
+public class AlarmCoalescer {
+    private final AlarmRepository alarmRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxPending;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final Counter mergedCounter;
+
+    public AlarmCoalescer(
+            AlarmRepository alarmRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${alarm.coalesce.window-ms:3000}") long windowMs,
+            @Value("${alarm.coalesce.max-pending:10000}") int maxPending,
+            MeterRegistry meterRegistry) {
+        this.alarmRepository = alarmRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxPending = maxPending;
+        this.mergedCounter = meterRegistry.counter("alarm.coalesce.merged");
+        Gauge.builder("alarm.coalesce.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 요청한 트랜잭션이 커밋된 뒤에만 합친다. 묶음이 너무 많으면 합치지 않고 바로 저장한다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void request(AlarmRequestedEvent event) {
+        Key key = new Key(event.getReceiver().getId(), event.getPostId(), event.getAlarmType());
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            save(List.of(new Pending(event, System.nanoTime())));
+            return;
+        }
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                return new Pending(event, System.nanoTime());
+            }
+            mergedCounter.increment();
+            current.add(event.getFromUser()); // compute 안에서만 변경한다.
+            return current;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${alarm.coalesce.flush-interval-ms:500}")
+    public void flush() {
+        long openedBefore = System.nanoTime() - windowNanos;
+        flush(p -> p.openedAt - openedBefore <= 0); // nanoTime 은 음수일 수 있어 차이로 비교한다.
+    }
+
+    /**
+     * window 와 관계없이 모든 묶음을 저장한다.
+     */
+    public void flushAll() {
+        flush(p -> true);
+    }
+
+    private void flush(Predicate<Pending> ready) {
+        List<Pending> batch = new ArrayList<>();
+        pending.keySet().forEach(key -> pending.computeIfPresent(key, (k, p) -> {
+            if (ready.test(p)) {
+                batch.add(p);
+                return null;
+            }
+            return p;
+        }));
+        if (!batch.isEmpty()) {
+            save(batch);
+        }
+    }
+
+    private void save(List<Pending> batch) {
+        List<Alarm> alarms = new ArrayList<>(batch.size());
+        batch.forEach(p -> alarms.add(Alarm.of(p.receiver, AlarmArgs.of(p.postId, p.lastActor), p.alarmType, p.actors.size())));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> alarmIds = alarmRepository.saveAll(alarms);
+                for (int i = 0; i < alarms.size(); i++) {
+                    Alarm alarm = alarms.get(i);
+                    AlarmDto alarmDto = AlarmDto.fromAlarm(alarm);
+                    alarmDto.setId(alarmIds.get(i));
+                    eventPublisher.publishEvent(AlarmEvent.of(alarmDto, alarm.getUser().getId())); // 커밋 후 전송
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("alarm coalesce flush failed, drop {} alarms", alarms.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final Long userId;
+        private final Long postId;
+        private final AlarmType alarmType;
+    }
+
+    private static class Pending {
+        private final User receiver;
+        private final Long postId;
+        private final AlarmType alarmType;
+        private final long openedAt;
+        private final LinkedHashSet<String> actors = new LinkedHashSet<>();
+        private String lastActor;
+
+        Pending(AlarmRequestedEvent event, long openedAt) {
+            this.receiver = event.getReceiver();
+            this.postId = event.getPostId();
+            this.alarmType = event.getAlarmType();
+            this.openedAt = openedAt;
+            add(event.getFromUser());
+        }
+
+        void add(String actor) {
+            actors.add(actor);
+            lastActor = actor;
+        }
+    }
+}
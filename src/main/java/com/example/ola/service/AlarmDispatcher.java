@@ -0,0 +1,44 @@
+package com.example.ola.service;
+
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamAlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 알람 전송 디스패처
+ * 알람을 저장한 트랜잭션이 커밋된 뒤 읽지 않은 알람 수를 늘리고 AlarmBus 로 발행한다.
+ * 전송 실패가 알람 저장을 롤백시키지 않고, 수신자가 어느 노드에 연결되어 있어도 전달된다.
+ * 읽지 않은 알람 수는 전송과 상관없이 커밋 시점에 늘리므로 버려진 전송도 세어진다.
+ * 팀 모집 게시글 채널 이벤트도 같은 bus 로 보내 다른 노드의 구독자에게 전달한다.
+ */
+@RequiredArgsConstructor
+@Component
+public class AlarmDispatcher {
+    private final AlarmBus alarmBus;
+    private final UnreadAlarmCounter unreadAlarmCounter;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatch(AlarmEvent event) {
+        unreadAlarmCounter.added(event.getUserId(), event.getAlarmId());
+        alarmBus.publish(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatch(TeamAlarmEvent event) {
+        event.getAlarms().forEach(alarm -> unreadAlarmCounter.added(alarm.getUserId(), alarm.getAlarmId()));
+        alarmBus.publishAll(event.getAlarms());
+    }
+
+    /**
+     * 멤버 / 대기열 변경이 커밋된 뒤 모든 노드의 채널 구독자에게 보낸다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void dispatch(TeamMembersChangedEvent event) {
+        alarmBus.publish(event);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.AlarmRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알람 테이블 정리 작업
+ * soft delete 된 지 graceDays 가 지난 알람과 retentionDays 보다 오래된 알람을 물리 삭제한다.
+ * PK 를 batchSize 범위씩 나눠 각각 짧은 트랜잭션으로 지우고, 범위 사이에 pauseMs 만큼 쉰다.
+ * 정리된 읽지 않은 알람은 UnreadAlarmCounter 의 주기적 보정으로 반영된다.
+ */
+@Slf4j
+@Component
+public class AlarmRetentionJob {
+    private final AlarmRepository alarmRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long softDeletedGraceDays;
+    private final long retentionDays;
+    private final int batchSize;
+    private final long pauseMs;
+    private final long maxDurationNanos;
+    private final Counter deletedCounter;
+    private volatile long resumeAfterId = 0L; // 지난 실행이 멈춘 id, 끝까지 돌았으면 0
+
+    public AlarmRetentionJob(
+            AlarmRepository alarmRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${alarm.retention.enabled:true}") boolean enabled,
+            @Value("${alarm.retention.soft-deleted-grace-days:7}") long softDeletedGraceDays,
+            @Value("${alarm.retention.retention-days:90}") long retentionDays,
+            @Value("${alarm.retention.batch-size:1000}") int batchSize,
+            @Value("${alarm.retention.pause-ms:100}") long pauseMs,
+            @Value("${alarm.retention.max-duration-minutes:30}") long maxDurationMinutes,
+            MeterRegistry meterRegistry) {
+        this.alarmRepository = alarmRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.softDeletedGraceDays = softDeletedGraceDays;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxDurationNanos = TimeUnit.MINUTES.toNanos(maxDurationMinutes);
+        this.deletedCounter = meterRegistry.counter("alarm.retention.deleted");
+    }
+
+    @Scheduled(cron = "${alarm.retention.cron:0 0 4 * * *}")
+    public void run() {
+        if (enabled) {
+            purge(Instant.now());
+        }
+    }
+
+    /**
+     * 가장 작은 id 부터 batchSize 범위씩 지운다. maxDuration 을 넘기면 멈춘 id 를 기억해 두고 다음 실행은 그 다음 범위부터 지운다.
+     * 끝까지 돌고 나면 앞쪽 범위에도 새로 기한이 지난 행이 생기므로 다음 실행은 다시 처음부터 시작한다.
+     * @param now
+     * @return 삭제된 행 수
+     */
+    long purge(Instant now) {
+        Optional<long[]> idRange = transactionTemplate.execute(status -> alarmRepository.findIdRange());
+        if (idRange == null || idRange.isEmpty()) {
+            return 0;
+        }
+        Timestamp deletedBefore = Timestamp.from(now.minus(Duration.ofDays(softDeletedGraceDays)));
+        Timestamp registeredBefore = Timestamp.from(now.minus(Duration.ofDays(retentionDays)));
+        long maxId = idRange.get()[1];
+        long deadline = System.nanoTime() + maxDurationNanos;
+        long deleted = 0;
+        long start = Math.max(idRange.get()[0] - 1, resumeAfterId);
+        resumeAfterId = 0L;
+        for (long from = start; from < maxId; from += batchSize) {
+            long fromId = from;
+            long toId = Math.min(from + batchSize, maxId);
+            Integer count = transactionTemplate.execute(status ->
+                    alarmRepository.purgeInRange(fromId, toId, deletedBefore, registeredBefore));
+            deleted += count == null ? 0 : count;
+            if (toId < maxId && (System.nanoTime() - deadline > 0 || !pause())) {
+                log.info("alarm retention stopped at id {}", toId);
+                resumeAfterId = toId;
+                break;
+            }
+        }
+        deletedCounter.increment(deleted);
+        log.info("alarm retention deleted {} rows", deleted);
+        return deleted;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ola.service;
+
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.example.ola.repository.RecentAlarmRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이 노드의 emitter 로 알람과 채널 이벤트를 보내는 sender
+ * 크기가 제한된 작업 큐에 넣고 워커 스레드가 SSE 로 전송한다.
+ * 느린 SSE 클라이언트가 커밋한 요청 스레드나 bus 수신 스레드를 붙잡지 않는다.
+ */
+@Slf4j
+@Component
+public class AlarmSender {
+    private final AlarmService alarmService;
+    private final RecentAlarmRepository recentAlarmRepository;
+    private final TeamChannelService teamChannelService;
+    private final ThreadPoolExecutor executor;
+    private final Timer latencyTimer;
+    private final Counter droppedCounter;
+
+    /**
+     * 큐가 가득 찼을 때의 정책
+     * DROP : 전송을 버린다. 알람은 이미 저장되어 있어 목록 조회로 확인할 수 있고, 재연결 버퍼는 비워 DB 에서 다시 보낸다.
+     * CALLER_RUNS : 호출한 스레드(커밋한 요청 스레드 또는 bus 수신 스레드)에서 바로 전송한다.
+     */
+    public enum OverflowPolicy {
+        DROP, CALLER_RUNS
+    }
+
+    public AlarmSender(
+            AlarmService alarmService,
+            RecentAlarmRepository recentAlarmRepository,
+            TeamChannelService teamChannelService,
+            @Value("${alarm.dispatch.workers:2}") int workers,
+            @Value("${alarm.dispatch.queue-capacity:1000}") int queueCapacity,
+            @Value("${alarm.dispatch.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            MeterRegistry meterRegistry) {
+        this.alarmService = alarmService;
+        this.recentAlarmRepository = recentAlarmRepository;
+        this.teamChannelService = teamChannelService;
+        this.latencyTimer = meterRegistry.timer("alarm.dispatch.latency");
+        this.droppedCounter = meterRegistry.counter("alarm.dispatch.dropped");
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("alarm-dispatch-"),
+                rejectedHandler(overflowPolicy));
+        new ExecutorServiceMetrics(executor, "alarmDispatch", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public void deliver(AlarmEvent event) {
+        deliverAll(List.of(event));
+    }
+
+    /**
+     * 여러 수신자의 알람을 하나의 작업으로 큐에 넣는다.
+     * @param events
+     */
+    public void deliverAll(List<AlarmEvent> events) {
+        executor.execute(new SendTask(events));
+    }
+
+    public void deliver(TeamMembersChangedEvent event) {
+        executor.execute(() -> teamChannelService.broadcast(event));
+    }
+
+    private void send(AlarmEvent event) {
+        try {
+            alarmService.send(event);
+        } catch (RuntimeException e) {
+            recentAlarmRepository.invalidate(event.getUserId());
+            log.warn("alarm dispatch failed alarmId: {}", event.getAlarmId(), e);
+        } finally {
+            latencyTimer.record(System.nanoTime() - event.getPublishedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RejectedExecutionHandler rejectedHandler(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+        return (task, executor) -> {
+            droppedCounter.increment();
+            if (task instanceof SendTask) {
+                ((SendTask) task).events.forEach(event -> recentAlarmRepository.invalidate(event.getUserId()));
+            }
+            log.warn("alarm dispatch queue is full, drop alarm");
+        };
+    }
+
+    /**
+     * 큐가 가득 차 버려질 때 어느 유저의 알람인지 알 수 있도록 events 를 들고 있는 작업
+     */
+    private class SendTask implements Runnable {
+        private final List<AlarmEvent> events;
+
+        SendTask(List<AlarmEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void run() {
+            events.forEach(AlarmSender.this::send);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
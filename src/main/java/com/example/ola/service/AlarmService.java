@@ -2,17 +2,26 @@ package com.example.ola.service;
 
 import com.example.ola.domain.Alarm;
 import com.example.ola.dto.AlarmDto;
+import com.example.ola.dto.response.AlarmResponse;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.UnreadCountChangedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.repository.AlarmRepository;
 import com.example.ola.repository.EmitterRepository;
+import com.example.ola.repository.RecentAlarmRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,51 +33,163 @@ public class AlarmService {
 
     private final EmitterRepository emitterRepository;
     private final AlarmRepository alarmRepository;
+    private final RecentAlarmRepository recentAlarmRepository;
+    private final UnreadAlarmCounter unreadAlarmCounter;
+    private final SseWriter sseWriter;
+    private final SseAdmission sseAdmission;
+    private final ApplicationEventPublisher eventPublisher;
     private final static String ALARM_NAME = "alarm";
+    private final static String UNREAD_NAME = "unread";
+    private final static int MAX_REPLAY = 100;
+    private final static int MAX_PAGE_SIZE = 100;
 
     /**
-     * SseEmitter 연결 : userId를 key 로 연결
+     * SseEmitter 연결 : userId를 key 로 연결, 한 유저가 여러 개 연결할 수 있다.
+     * 연결 직후 읽지 않은 알람 수를 보내고, 재연결이면 lastEventId 이후의 알람을 다시 보낸다.
+     * open 이벤트에 id 를 붙이면 클라이언트의 Last-Event-ID 가 덮어써지므로 붙이지 않는다.
+     * 저장하는 순간부터 AlarmSender 도 같은 연결로 보낼 수 있으므로, 연결 직후의 이벤트도 SseWriter 의 전송 큐로 보낸다.
+     * 그 사이 들어온 알람이 다시 보내는 알람보다 먼저 나갈 수는 있지만, 같은 연결에 두 스레드가 동시에 쓰지는 않는다.
+     * open 이벤트의 retry 는 연결마다 다르게 주어, 배포로 한 번에 끊긴 클라이언트들의 재연결을 흩뿌린다.
      * @param userId
+     * @param lastEventId
      * @return sseEmitter
      */
-    public SseEmitter connectAlarm(Long userId) {
+    public SseEmitter connectAlarm(Long userId, String lastEventId) {
         SseEmitter sseEmitter = emitterRepository.save(userId);
-        sseEmitter.onCompletion(() -> emitterRepository.delete(userId));
-        sseEmitter.onTimeout(() -> emitterRepository.delete(userId));
-        try {
-            sseEmitter.send(SseEmitter.event().id("").name("open").data("connect completed"));
-        } catch (IOException e) {
-            throw new OlaApplicationException(ErrorCode.ALARM_CONNECT_ERROR);
+        sseWriter.send(userId, sseEmitter, SseEmitter.event()
+                .reconnectTime(sseAdmission.reconnectTimeMillis())
+                .name("open")
+                .data("connect completed"));
+        sseWriter.send(userId, sseEmitter, unreadEvent(unreadAlarmCounter.get(userId)));
+        Long lastId = parseEventId(lastEventId);
+        if (lastId != null) {
+            for (AlarmDto alarm : missedAlarms(userId, lastId)) {
+                sseWriter.send(userId, sseEmitter, alarmEvent(alarm));
+            }
         }
         return sseEmitter;
     }
 
     /**
-     * SseEmitter 를 통한 알람 전송
-     * @param alarmId
+     * 놓친 알람 : 링 버퍼가 구간을 갖고 있으면 버퍼에서, 아니면 DB 범위 조회로 가져온다.
+     */
+    private List<AlarmDto> missedAlarms(Long userId, Long lastId) {
+        return recentAlarmRepository.findAfter(userId, lastId)
+                .orElseGet(() -> alarmRepository.findByUserIdAfter(userId, lastId, MAX_REPLAY)
+                        .stream().map(AlarmDto::fromAlarm)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * 알람 이벤트, 클라이언트가 목록을 다시 조회하지 않도록 AlarmResponse 를 JSON 으로 담는다.
+     */
+    private SseEmitter.SseEventBuilder alarmEvent(AlarmDto alarm) {
+        return SseEmitter.event()
+                .id(alarm.getId().toString())
+                .name(ALARM_NAME)
+                .data(AlarmResponse.fromAlarmDto(alarm), MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder unreadEvent(long unreadCount) {
+        return SseEmitter.event().name(UNREAD_NAME).data(unreadCount);
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (!StringUtils.hasText(lastEventId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * AlarmSender 가 전송할 때 호출한다.
+     * 다른 노드에서 저장된 알람은 이 노드의 카운터에 더해지지 않았으므로 DB 에서 다시 세게 한다.
+     * @param event
+     */
+    public void send(AlarmEvent event) {
+        if (event.isRemote()) {
+            unreadAlarmCounter.invalidate(event.getUserId());
+        }
+        send(event.getAlarm(), event.getUserId());
+    }
+
+    /**
+     * SseEmitter 를 통한 알람 전송, 유저의 모든 연결의 전송 큐에 알람과 읽지 않은 알람 수를 넣는다.
+     * 읽지 않은 알람 수는 AlarmDispatcher 가 커밋 시점에 이미 늘려 두었다.
+     * 실제 전송과 실패한 연결 정리는 SseWriter 가 맡는다.
+     * @param alarm
      * @param userId
      */
-    public void send(Long alarmId, Long userId) {
-        emitterRepository.get(userId).ifPresentOrElse(sseEmitter -> {
-            try {
-                sseEmitter.send(SseEmitter.event().id(alarmId.toString()).name(ALARM_NAME).data("new alarm"));
-            } catch (IOException e) {
-                emitterRepository.delete(userId);
-                throw new OlaApplicationException(ErrorCode.ALARM_CONNECT_ERROR);
-            }
-        }, () -> log.info("No Emiiter found"));
+    public void send(AlarmDto alarm, Long userId) {
+        recentAlarmRepository.add(userId, alarm); // 연결이 없어도 재연결 시 보낼 수 있도록 기록한다.
+        Collection<SseEmitter> emitters = emitterRepository.get(userId);
+        if (emitters.isEmpty()) {
+            log.info("No Emiiter found");
+            return;
+        }
+        long unreadCount = unreadAlarmCounter.get(userId);
+        emitters.forEach(sseEmitter -> {
+            sseWriter.send(userId, sseEmitter, alarmEvent(alarm));
+            sseWriter.send(userId, sseEmitter, unreadEvent(unreadCount));
+        });
     }
 
     /**
-     * 알람 조회
-     * @param username
+     * 읽음 / 삭제가 커밋된 뒤 카운터에 반영하고 유저의 모든 연결로 새 값을 보낸다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        Long userId = event.getUserId();
+        unreadAlarmCounter.add(userId, event.getDelta());
+        Collection<SseEmitter> emitters = emitterRepository.get(userId);
+        if (emitters.isEmpty()) {
+            return;
+        }
+        long unreadCount = unreadAlarmCounter.get(userId);
+        emitters.forEach(sseEmitter -> sseWriter.send(userId, sseEmitter, unreadEvent(unreadCount)));
+    }
+
+    /**
+     * 읽지 않은 알람 수
+     * @param userId
+     * @return long
+     */
+    public long unreadCount(Long userId) {
+        return unreadAlarmCounter.get(userId);
+    }
+
+    /**
+     * 알람 조회 : 최신순으로 cursor(이전 페이지의 마지막 id) 보다 작은 id 를 size 개 조회한다.
+     * @param userId
+     * @param cursor
+     * @param size
      * @return List<AlarmDto>
      */
+    public List<AlarmDto> alarms(Long userId, Long cursor, int size) {
+        return alarmRepository.findByUserId(
+                        userId,
+                        cursor == null ? Long.MAX_VALUE : cursor,
+                        Math.max(1, Math.min(size, MAX_PAGE_SIZE)))
+                .stream().map(AlarmDto::fromAlarm)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * upTo 이하의 알람을 모두 읽음 처리
+     * @param userId
+     * @param upTo
+     */
     @Transactional
-    public List<AlarmDto> alarms(String username) {
-        return alarmRepository.findByUsername(username)
-                .map(alarms -> alarms.stream().map(AlarmDto::fromAlarm)
-                        .collect(Collectors.toList())).orElseGet(List::of);
+    public void readAlarms(Long userId, Long upTo) {
+        int updated = alarmRepository.markReadUpTo(userId, upTo);
+        if (updated > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.of(userId, -updated));
+        }
     }
 
     /**
@@ -80,5 +201,8 @@ public class AlarmService {
         Alarm alarm = alarmRepository.findById(alarmId)
                 .orElseThrow(() -> new OlaApplicationException(ErrorCode.ALARM_NOT_FOUND));
         alarmRepository.remove(alarm);
+        if (alarm.getReadAt() == null) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.of(alarm.getUser().getId(), -1));
+        }
     }
 }
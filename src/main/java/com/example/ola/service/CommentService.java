@@ -3,14 +3,15 @@ package com.example.ola.service;
 import com.example.ola.domain.*;
 import com.example.ola.dto.CommentDto;
 import com.example.ola.dto.request.PostType;
+import com.example.ola.event.AlarmRequestedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
-import com.example.ola.repository.AlarmRepository;
 import com.example.ola.repository.CommentRepository;
 import com.example.ola.repository.PostRepository;
 import com.example.ola.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,8 +26,7 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final AlarmRepository alarmRepository;
-    private final AlarmService alarmService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * post 별 댓글 조회
@@ -81,22 +81,12 @@ public class CommentService {
      * @param userPrincipalUsername
      */
     private void selectAlarmTypeAndSend(PostType type, User user, Post post, String userPrincipalUsername) {
-        Alarm alarm;
         if (userPrincipalUsername.equals(user.getUsername())) {
             return;
         }
-        if (type.getName().equals("post")) {
-            alarm = alarmRepository.save(Alarm.of(
-                    user,
-                    AlarmArgs.of(post.getId(), userPrincipalUsername),
-                    AlarmType.COMMENT));
-        } else {
-            alarm = alarmRepository.save(Alarm.of(
-                    user,
-                    AlarmArgs.of(post.getId(), userPrincipalUsername),
-                    AlarmType.TEAM_COMMENT));
-        }
-        alarmService.send(alarm.getId(), user.getId());
+        AlarmType alarmType = type.getName().equals("post") ? AlarmType.COMMENT : AlarmType.TEAM_COMMENT;
+        // 커밋 후 같은 게시물의 댓글 알람과 묶어서 저장, 전송한다.
+        eventPublisher.publishEvent(AlarmRequestedEvent.of(user, post.getId(), userPrincipalUsername, alarmType));
     }
 
     /**
@@ -0,0 +1,81 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.EmitterRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SSE 연결 heartbeat
+ * 주기적으로 모든 emitter 의 전송 큐에 SSE comment 를 넣고, 전송에 실패한 연결은 SseWriter 가 정리한다.
+ * 알람이 오지 않는 half-open 연결도 heartbeat 전송이 실패하면서 타임아웃 전에 정리된다.
+ * 큐에 보낼 이벤트가 남아 있는 연결에는 heartbeat 를 넣지 않는다.
+ */
+@Slf4j
+@Component
+public class EmitterHeartbeat {
+    private final EmitterRepository emitterRepository;
+    private final SseWriter sseWriter;
+    private final int batchSize;
+    private final long batchPauseMs;
+
+    public EmitterHeartbeat(
+            EmitterRepository emitterRepository,
+            SseWriter sseWriter,
+            @Value("${alarm.heartbeat.batch-size:500}") int batchSize,
+            @Value("${alarm.heartbeat.batch-pause-ms:10}") long batchPauseMs,
+            MeterRegistry meterRegistry) {
+        this.emitterRepository = emitterRepository;
+        this.sseWriter = sseWriter;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        Gauge.builder("alarm.sse.connections", emitterRepository, EmitterRepository::count)
+                .register(meterRegistry);
+        Gauge.builder("alarm.sse.channel.subscribers", emitterRepository, EmitterRepository::subscriberCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * batchSize 개씩 큐에 넣고 batch 사이에 잠시 쉬어 연결이 많을 때 쓰기가 한 번에 몰리지 않게 한다.
+     * 유저 연결을 먼저 돌고, 이어서 팀 채널 구독 연결을 돈다.
+     */
+    @Scheduled(fixedDelayString = "${alarm.heartbeat.interval-ms:30000}")
+    public void beat() {
+        if (beat(emitterRepository.snapshot(), sseWriter::sendIfIdle)) {
+            beat(emitterRepository.channelSnapshot(), sseWriter::sendToChannelIfIdle);
+        }
+    }
+
+    private boolean beat(List<Map.Entry<Long, SseEmitter>> entries, Ping ping) {
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            if (from > 0 && !pause()) {
+                return false;
+            }
+            for (Map.Entry<Long, SseEmitter> entry : entries.subList(from, Math.min(from + batchSize, entries.size()))) {
+                ping.send(entry.getKey(), entry.getValue(), SseEmitter.event().comment("heartbeat"));
+            }
+        }
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private interface Ping {
+        void send(Long key, SseEmitter emitter, SseEmitter.SseEventBuilder event);
+    }
+}
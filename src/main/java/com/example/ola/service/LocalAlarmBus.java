@@ -0,0 +1,30 @@
+package com.example.ola.service;
+
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 단일 노드용 bus, 발행한 알람을 바로 이 노드의 emitter 로 전송한다.
+ */
+@RequiredArgsConstructor
+public class LocalAlarmBus implements AlarmBus {
+    private final AlarmSender alarmSender;
+
+    @Override
+    public void publish(AlarmEvent event) {
+        alarmSender.deliver(event);
+    }
+
+    @Override
+    public void publishAll(List<AlarmEvent> events) {
+        alarmSender.deliverAll(events);
+    }
+
+    @Override
+    public void publish(TeamMembersChangedEvent event) {
+        alarmSender.deliver(event);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.ola.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 프로세스 안에서 동작하는 transport, 여러 NetworkAlarmBus 가 공유하면 여러 노드처럼 동작한다.
+ * 외부 브로커 없이 NetworkAlarmBus 를 테스트하거나 로컬에서 실행할 때 사용한다.
+ */
+public class LoopbackAlarmBusTransport implements AlarmBusTransport {
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
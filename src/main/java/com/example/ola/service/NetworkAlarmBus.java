@@ -0,0 +1,195 @@
+package com.example.ola.service;
+
+import com.example.ola.event.AlarmBatchMessage;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.example.ola.repository.RecentAlarmRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 노드용 bus
+ * 발행한 알람은 이 노드의 emitter 로 바로 보내고, 다른 노드를 위해 batch 로 모아 transport 로 보낸다.
+ * 다른 노드의 메시지를 받으면 자신의 emitter 로만 전송하고, 자신이 보낸 메시지는 무시한다.
+ * 알람마다 노드별 sequence 를 붙여, 보내는 쪽 큐가 넘쳤거나 전송이 실패해 빠진 알람이 있으면
+ * 받는 쪽은 어느 유저의 알람인지 모르므로 재연결 버퍼를 모두 비운다.
+ * 채널 이벤트는 postId 별 마지막 상태만 모아 같은 메시지에 함께 보낸다.
+ */
+@Slf4j
+public class NetworkAlarmBus implements AlarmBus {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AlarmBusTransport transport;
+    private final AlarmSender alarmSender;
+    private final RecentAlarmRepository recentAlarmRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final BlockingQueue<AlarmBatchMessage.Item> pending;
+    private final Map<Long, TeamMembersChangedEvent> pendingChannels = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequences = new HashMap<>();
+    private final Counter droppedCounter;
+    private final Counter gapCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public NetworkAlarmBus(
+            AlarmBusTransport transport,
+            AlarmSender alarmSender,
+            RecentAlarmRepository recentAlarmRepository,
+            ObjectMapper objectMapper,
+            int batchSize,
+            int queueCapacity,
+            long flushIntervalMs,
+            MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.alarmSender = alarmSender;
+        this.recentAlarmRepository = recentAlarmRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.droppedCounter = meterRegistry.counter("alarm.bus.dropped");
+        this.gapCounter = meterRegistry.counter("alarm.bus.gap");
+        this.batchSizeSummary = meterRegistry.summary("alarm.bus.batch.size");
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("alarm-bus-"));
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        transport.subscribe(this::receive);
+    }
+
+    /**
+     * 큐가 가득 차면 다른 노드로의 전송만 버린다. 알람은 이미 저장되어 있어 목록 조회나 재연결로 받을 수 있다.
+     * 버린 알람도 sequence 를 쓰므로 받는 노드는 빈 번호를 보고 재연결 버퍼를 비운다.
+     * @param event
+     */
+    @Override
+    public void publish(AlarmEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Override
+    public void publishAll(List<AlarmEvent> events) {
+        alarmSender.deliverAll(events);
+        for (AlarmEvent event : events) {
+            if (!pending.offer(AlarmBatchMessage.Item.of(event.getAlarm(), event.getUserId(), sequence.incrementAndGet()))) {
+                droppedCounter.increment();
+                log.warn("alarm bus queue is full, drop alarm for other nodes");
+            }
+        }
+        if (pending.size() >= batchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * 아직 보내지 않은 같은 게시글의 이벤트는 새 상태로 덮어쓴다.
+     * @param event
+     */
+    @Override
+    public void publish(TeamMembersChangedEvent event) {
+        alarmSender.deliver(event);
+        if (pendingChannels.size() >= queueCapacity && !pendingChannels.containsKey(event.getPostId())) {
+            log.warn("alarm bus channel queue is full, drop channel event for other nodes");
+            return;
+        }
+        pendingChannels.put(event.getPostId(), event);
+    }
+
+    /**
+     * 쌓인 알람과 채널 이벤트를 batchSize 개씩 묶어 보낸다. flusher 스레드에서만 호출된다.
+     */
+    void flush() {
+        List<AlarmBatchMessage.Item> batch = new ArrayList<>(batchSize);
+        List<TeamMembersChangedEvent> channels = drainChannels();
+        while (pending.drainTo(batch, batchSize) > 0 || !channels.isEmpty()) {
+            try {
+                transport.publish(objectMapper.writeValueAsString(AlarmBatchMessage.of(nodeId, batch, channels)));
+                batchSizeSummary.record(batch.size());
+            } catch (JsonProcessingException | RuntimeException e) {
+                droppedCounter.increment(batch.size());
+                log.warn("alarm bus publish failed, drop {} alarms and {} channel events", batch.size(), channels.size(), e);
+            }
+            batch = new ArrayList<>(batchSize);
+            channels = drainChannels();
+        }
+    }
+
+    private List<TeamMembersChangedEvent> drainChannels() {
+        List<TeamMembersChangedEvent> channels = new ArrayList<>();
+        for (Long postId : pendingChannels.keySet()) {
+            if (channels.size() >= batchSize) {
+                break;
+            }
+            TeamMembersChangedEvent event = pendingChannels.remove(postId);
+            if (event != null) {
+                channels.add(event);
+            }
+        }
+        return channels;
+    }
+
+    private void receive(String payload) {
+        try {
+            AlarmBatchMessage message = objectMapper.readValue(payload, AlarmBatchMessage.class);
+            if (nodeId.equals(message.getOrigin())) {
+                return;
+            }
+            for (AlarmBatchMessage.Item item : message.getAlarms()) {
+                checkSequence(message.getOrigin(), item.getSequence());
+            }
+            if (!message.getAlarms().isEmpty()) {
+                alarmSender.deliverAll(message.getAlarms().stream()
+                        .map(item -> AlarmEvent.remote(item.getAlarm(), item.getUserId()))
+                        .collect(Collectors.toList()));
+            }
+            if (message.getChannels() != null) {
+                message.getChannels().forEach(alarmSender::deliver);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("invalid alarm bus message", e);
+        }
+    }
+
+    /**
+     * 처음 보는 노드는 이 노드가 뜨기 전부터 보내고 있었을 수 있으므로 1 이 아니면 유실로 본다.
+     * 늦게 도착한 메시지는 이미 앞에서 빈 번호로 처리했으므로 마지막 번호를 되돌리지 않는다.
+     */
+    private synchronized void checkSequence(String origin, long received) {
+        long last = lastSequences.getOrDefault(origin, 0L);
+        if (received <= last) {
+            return;
+        }
+        lastSequences.put(origin, received);
+        if (received != last + 1) {
+            gapCounter.increment(received - last - 1);
+            log.warn("alarm bus gap from {}, expected {} but received {}", origin, last + 1, received);
+            recentAlarmRepository.invalidateAll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.execute(this::flush); // 남은 알람을 보내고 종료한다.
+        flusher.shutdown();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ola.service;
+
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.repository.PostRepository;
+import com.example.ola.repository.TeamPostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * dtype 별 게시글 수
+ * 목록의 페이지 번호를 그리려고 요청마다 post 테이블 전체를 count 하지 않도록, 처음 조회할 때만 DB 에서 세고
+ * 이후에는 작성 / 삭제가 커밋될 때 증감한다. 다른 노드의 작성 / 삭제로 어긋난 값은 주기적으로 DB 와 맞춘다.
+ */
+@Slf4j
+@Component
+public class PostCounter {
+    public static final String POST = "post";
+    public static final String TEAM_POST = "T";
+
+    private final PostRepository postRepository;
+    private final TeamPostRepository teamPostRepository;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public PostCounter(PostRepository postRepository, TeamPostRepository teamPostRepository, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.teamPostRepository = teamPostRepository;
+        Gauge.builder("post.count", counters, c -> valueOf(c, POST)).tag("type", POST).register(meterRegistry);
+        Gauge.builder("post.count", counters, c -> valueOf(c, TEAM_POST)).tag("type", TEAM_POST).register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public long get(String dtype) {
+        return counters.computeIfAbsent(dtype, key -> new AtomicLong(load(key))).get();
+    }
+
+    /**
+     * 커밋된 작성 / 삭제를 반영한다. 아직 적재되지 않았으면 다음 조회에서 DB 로부터 적재된다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        long delta = event.getType() == PostChangedEvent.Type.WRITTEN ? 1
+                : event.getType() == PostChangedEvent.Type.DELETED ? -1 : 0;
+        AtomicLong counter = counters.get(event.getDtype());
+        if (counter != null && delta != 0) {
+            counter.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+        }
+    }
+
+    /**
+     * 적재된 dtype 의 값을 DB 와 맞춘다. 세는 동안 커밋된 변경은 다음 주기에 다시 맞춰진다.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${post.count.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        counters.forEach((dtype, counter) -> {
+            long count = load(dtype);
+            long previous = counter.getAndSet(count);
+            if (previous != count) {
+                log.info("post count of {} reconciled {} -> {}", dtype, previous, count);
+            }
+        });
+    }
+
+    private long load(String dtype) {
+        Long count = TEAM_POST.equals(dtype) ? teamPostRepository.getPostCount(dtype) : postRepository.getPostCount(dtype);
+        return count == null ? 0 : count;
+    }
+
+    private static double valueOf(Map<String, AtomicLong> counters, String dtype) {
+        AtomicLong counter = counters.get(dtype);
+        return counter == null ? Double.NaN : counter.get();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ola.service;
+
+import com.example.ola.dto.response.MyPageResponse;
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 검색어 없는 게시글 / 팀 빌딩 게시글 목록의 앞쪽 pages 페이지 캐시
+ * 같은 페이지를 동시에 조회해도 적재는 한 번만 하고 나머지는 그 결과를 기다린다.
+ * 게시글 작성 / 수정 / 삭제, 팀원 변경이 커밋되면 해당 dtype 의 페이지를 모두 비우고,
+ * 다른 노드의 변경은 TTL 이 지나면 반영된다.
+ */
+@Component
+public class PostPageCache {
+    private static final String CACHE_NAME = "postPage";
+
+    private final int pages;
+    private final Cache<Key, MyPageResponse> cache;
+
+    public PostPageCache(
+            @Value("${post.page-cache.pages:3}") int pages,
+            @Value("${post.page-cache.expire-after-write-seconds:5}") long expireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        this.pages = pages;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(pages, 0) * 2L)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 캐시 대상 페이지면 캐시된 목록을, 아니면 loader 결과를 그대로 반환한다.
+     * @param dtype
+     * @param page
+     * @param loader
+     * @return MyPageResponse
+     */
+    public MyPageResponse get(String dtype, int page, Supplier<MyPageResponse> loader) {
+        if (page < 0 || page >= pages) {
+            return loader.get();
+        }
+        return cache.get(new Key(dtype, page), key -> loader.get());
+    }
+
+    /**
+     * 키를 하나씩 지운다. 적재 중인 키는 적재가 끝난 뒤 지워지므로 커밋 전에 읽은 목록이 남지 않는다.
+     * @param dtype
+     */
+    public void invalidate(String dtype) {
+        List<Key> keys = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            keys.add(new Key(dtype, page));
+        }
+        cache.invalidateAll(keys);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.getDtype());
+    }
+
+    /**
+     * 팀 빌딩 게시글 목록에는 팀원과 모집 상태가 들어 있다.
+     * @param event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTeamMembersChanged(TeamMembersChangedEvent event) {
+        invalidate(PostCounter.TEAM_POST);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String dtype;
+        private final int page;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.HomeGym;
+import com.example.ola.domain.Post;
+import com.example.ola.domain.TeamBuildingPost;
+import com.example.ola.dto.PostIndexDto;
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.repository.PostRepository;
+import com.example.ola.utils.AddressIndex;
+import com.example.ola.utils.NgramIndex;
+import com.example.ola.utils.SearchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * dtype 별 게시글 제목 / 본문 검색 색인과 팀 빌딩 게시글의 장소 색인
+ * 기동 후 별도 스레드에서 DB 의 게시글을 id 순으로 읽어 색인하고, 이후에는 커밋된 작성 / 수정 / 삭제 이벤트로 갱신한다.
+ * 다른 노드의 변경은 주기적으로 등록 / 수정 시각이 마지막 동기화 이후인 행을 다시 읽어 제목 / 본문과 장소 색인에 반영한다.
+ * 색인이 다 만들어지기 전에는 검색하지 않으므로 호출하는 쪽은 like 검색으로 대신한다.
+ */
+@Slf4j
+@Component
+public class PostSearchIndex {
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long syncOverlapMillis;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("post-search-"));
+    private final Map<String, NgramIndex> indexes = Map.of(
+            PostCounter.POST, new NgramIndex(),
+            PostCounter.TEAM_POST, new NgramIndex());
+    private final AddressIndex places = new AddressIndex();
+    private final Set<Long> removedWhileRebuilding = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+    private volatile Timestamp syncedAt;
+
+    public PostSearchIndex(
+            PostRepository postRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${post.search.enabled:true}") boolean enabled,
+            @Value("${post.search.sync-overlap-ms:60000}") long syncOverlapMillis,
+            MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.syncOverlapMillis = syncOverlapMillis;
+        indexes.forEach((dtype, index) ->
+                Gauge.builder("post.search.documents", index, NgramIndex::size).tag("type", dtype).register(meterRegistry));
+        Gauge.builder("post.search.places", places, AddressIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * 기동을 붙잡지 않도록 색인은 rebuilder 스레드에서 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        rebuilding = true; // 실행 전에 다음 동기화 주기가 한 번 더 맡기지 않도록 먼저 표시한다.
+        rebuilder.execute(this::rebuild);
+    }
+
+    /**
+     * 색인을 처음부터 만든다. 그 사이 이벤트로 먼저 반영된 게시글은 DB 에서 읽은 값으로 덮어쓰지 않고,
+     * 삭제된 게시글은 다시 넣지 않는다. 실패하면 준비되지 않은 상태로 남고 다음 동기화 주기에 다시 만든다.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        Timestamp syncFrom = new Timestamp(System.currentTimeMillis());
+        rebuilding = true;
+        try {
+            long lastId = 0;
+            while (true) {
+                long afterId = lastId;
+                Long batchLastId = transactionTemplate.execute(status -> indexBatch(afterId));
+                if (batchLastId == null) {
+                    break;
+                }
+                lastId = batchLastId;
+            }
+            syncedAt = syncFrom;
+            ready = true;
+            log.info("post search index built, posts: {}, team posts: {}, places: {}, {} ms",
+                    indexes.get(PostCounter.POST).size(),
+                    indexes.get(PostCounter.TEAM_POST).size(),
+                    places.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (RuntimeException e) {
+            log.error("post search index build failed, fall back to like search", e);
+        } finally {
+            rebuilding = false;
+            removedWhileRebuilding.clear();
+        }
+    }
+
+    /**
+     * 마지막 동기화 이후 등록 / 수정 / 삭제된 게시글을 다시 읽어 다른 노드의 변경을 반영한다.
+     * 커밋 지연과 노드 간 시각 차이를 덮도록 syncOverlapMillis 만큼 겹쳐 읽고, 같은 행을 다시 넣어도 결과는 같다.
+     */
+    @Scheduled(fixedDelayString = "${post.search.sync-interval-ms:60000}")
+    public void sync() {
+        if (!enabled || rebuilding) {
+            return;
+        }
+        if (!ready) {
+            scheduleRebuild();
+            return;
+        }
+        Timestamp since = new Timestamp(syncedAt.getTime() - syncOverlapMillis);
+        Timestamp syncFrom = new Timestamp(System.currentTimeMillis());
+        int synced = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<PostIndexDto> rows = transactionTemplate.execute(status -> postRepository.findChangedSince(since, afterId, REBUILD_BATCH_SIZE));
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            rows.forEach(this::apply);
+            synced += rows.size();
+            lastId = rows.get(rows.size() - 1).getId();
+        }
+        syncedAt = syncFrom;
+        log.debug("post search index synced {} posts", synced);
+    }
+
+    private void apply(PostIndexDto row) {
+        NgramIndex index = indexes.get(row.getDtype());
+        if (index == null) {
+            return;
+        }
+        if (row.isDeleted()) {
+            index.remove(row.getId());
+            places.remove(row.getId());
+            return;
+        }
+        index.put(row.getId(), row.getTitle(), row.getContent());
+        if (row.getPlace() != null) {
+            places.put(row.getId(), row.getPlace());
+        }
+    }
+
+    private Long indexBatch(long afterId) {
+        List<Post> posts = postRepository.findAllAfterId(afterId, REBUILD_BATCH_SIZE);
+        if (posts.isEmpty()) {
+            return null;
+        }
+        for (Post post : posts) {
+            if (removedWhileRebuilding.contains(post.getId())) {
+                continue;
+            }
+            if (post instanceof TeamBuildingPost) {
+                indexes.get(PostCounter.TEAM_POST).putIfAbsent(post.getId(), post.getTitle(), post.getContent());
+                HomeGym homeGym = ((TeamBuildingPost) post).getHomeGym(); // default_batch_fetch_size 로 묶어 읽는다.
+                if (homeGym != null) {
+                    places.putIfAbsent(post.getId(), homeGym.getRoadAddressName());
+                }
+            } else {
+                indexes.get(PostCounter.POST).putIfAbsent(post.getId(), post.getTitle(), post.getContent());
+            }
+        }
+        return posts.get(posts.size() - 1).getId();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        NgramIndex index = indexes.get(event.getDtype());
+        if (!enabled || index == null) {
+            return;
+        }
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            if (rebuilding) {
+                removedWhileRebuilding.add(event.getPostId());
+            }
+            index.remove(event.getPostId());
+            places.remove(event.getPostId());
+            return;
+        }
+        index.put(event.getPostId(), event.getTitle(), event.getContent());
+        if (event.getPlace() != null) {
+            places.put(event.getPostId(), event.getPlace());
+        }
+    }
+
+    /**
+     * 관련도순 검색
+     * @param dtype
+     * @param keyword
+     * @param offset
+     * @param limit
+     * @return 색인이 준비되지 않았거나 검색어가 너무 짧으면 empty
+     */
+    public Optional<SearchResult> search(String dtype, String keyword, int offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indexes.get(dtype).search(keyword, offset, limit));
+    }
+
+    /**
+     * 지역명으로 팀 빌딩 게시글 최신순 검색
+     * @param place
+     * @param offset
+     * @param limit
+     * @return 색인이 준비되지 않았거나 검색어에 지역명이 없으면 empty
+     */
+    public Optional<SearchResult> searchPlace(String place, int offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(places.search(place, offset, limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -5,6 +5,8 @@ import com.example.ola.dto.PostDto;
 import com.example.ola.dto.request.*;
 import com.example.ola.dto.response.MyPageResponse;
 import com.example.ola.dto.response.PostResponse;
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.event.UnreadCountChangedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.repository.AlarmRepository;
@@ -15,11 +17,15 @@ import com.example.ola.utils.Crawler;
 import com.example.ola.utils.Paging;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,6 +37,10 @@ public class PostService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final AlarmRepository alarmRepository;
+    private final PostCounter postCounter;
+    private final PostSearchIndex postSearchIndex;
+    private final PostPageCache postPageCache;
+    private final ApplicationEventPublisher eventPublisher;
     private static final int POST_SIZE = 10;
 
     /**
@@ -44,13 +54,14 @@ public class PostService {
         if (!userPrincipalUsername.equals(postWriteRequest.getUsername())) {
             throw new OlaApplicationException(ErrorCode.UNAUTHORIZED_BEHAVIOR);
         }
-        return PostDto.fromPost(
-                postRepository.save(
-                        Post.of(
-                                getUserByUsernameOrElseThrow(postWriteRequest.getUsername()),
-                                postWriteRequest.getTitle(),
-                                postWriteRequest.getContent(),
-                                postWriteRequest.getImgUri())));
+        Post post = postRepository.save(
+                Post.of(
+                        getUserByUsernameOrElseThrow(postWriteRequest.getUsername()),
+                        postWriteRequest.getTitle(),
+                        postWriteRequest.getContent(),
+                        postWriteRequest.getImgUri()));
+        eventPublisher.publishEvent(PostChangedEvent.written(post.getId(), PostCounter.POST, post.getTitle(), post.getContent()));
+        return PostDto.fromPost(post);
     }
 
     /**
@@ -66,37 +77,68 @@ public class PostService {
             throw new OlaApplicationException(ErrorCode.UNAUTHORIZED_BEHAVIOR);
         }
         foundedPost.update(param.getTitle(), param.getContent(), param.getImgUri());
+        eventPublisher.publishEvent(PostChangedEvent.updated(foundedPost.getId(), dtypeOf(foundedPost), foundedPost.getTitle(), foundedPost.getContent()));
         return PostDto.fromPost(foundedPost);
     }
 
     /**
      * 페이징된 게시글 반환
+     * after 가 있으면 그 id 다음부터 seek 하고, 없으면 start 페이지로 이동한다. 페이지 번호 목록은 두 경우 모두 start 기준이다.
+     * after 없이 조회하는 앞쪽 페이지는 PostPageCache 에서 반환한다.
      * @param start
      * @param keyword
+     * @param after
      * @return MyPageResponse
      */
-    public MyPageResponse findAllPostsWithPaging(int start, String keyword) {
+    public MyPageResponse findAllPostsWithPaging(int start, String keyword, Long after) {
         if (StringUtils.hasText(keyword)) {
-            return findAllPostsByKeyword(keyword);
+            return findAllPostsByKeyword(keyword, start);
         }
-        List<PostResponse> postList = postRepository.findAllPostsWithPaging(start)
+        if (after == null) {
+            return postPageCache.get(PostCounter.POST, start, () -> loadPostPage(start, null));
+        }
+        return loadPostPage(start, after);
+    }
+
+    private MyPageResponse loadPostPage(int start, Long after) {
+        List<PostResponse> postList = (after == null ? postRepository.findAllPostsWithPaging(start) : postRepository.findAllPostsAfter(after))
                 .orElseThrow(() -> new OlaApplicationException(ErrorCode.POST_NOT_FOUND))
                 .stream().map(PostDto::fromPost)
                 .map(PostResponse::fromPostDto)
                 .collect(Collectors.toList());
-        List<Integer> pageList = Paging.getPageList(postRepository.getPostCount("post").intValue(), POST_SIZE, start);
-        return MyPageResponse.of(postList, pageList);
+        List<Integer> pageList = Paging.getPageList((int) postCounter.get(PostCounter.POST), POST_SIZE, start);
+        Long nextCursor = postList.size() < POST_SIZE ? null : postList.get(postList.size() - 1).getId();
+        return MyPageResponse.of(postList, pageList, nextCursor);
     }
 
     /**
      * 키워드로 검색된 페이징 게시글 반환
+     * 검색 색인이 준비되어 있으면 관련도순 start 페이지를 id 로 조회하고, 아니면 like 검색으로 대신한다.
      * @param keyword
+     * @param start
      * @return MyPageResponse
      */
-    public MyPageResponse findAllPostsByKeyword(String keyword) {
+    public MyPageResponse findAllPostsByKeyword(String keyword, int start) {
         if (!StringUtils.hasText(keyword)) {
             throw new OlaApplicationException(ErrorCode.INVALID_KEYWORD);
         }
+        int page = Math.max(start, 0);
+        return postSearchIndex.search(PostCounter.POST, keyword, page * POST_SIZE, POST_SIZE)
+                .map(result -> {
+                    Map<Long, Post> posts = postRepository.findAllPostsByIds(result.getIds()).stream()
+                            .collect(Collectors.toMap(Post::getId, Function.identity()));
+                    List<PostResponse> postList = result.getIds().stream()
+                            .map(posts::get)
+                            .filter(Objects::nonNull)
+                            .map(PostDto::fromPost)
+                            .map(PostResponse::fromPostDto)
+                            .collect(Collectors.toList());
+                    return MyPageResponse.of(postList, Paging.getPageList(result.getTotal(), POST_SIZE, page));
+                })
+                .orElseGet(() -> findAllPostsByLike(keyword));
+    }
+
+    private MyPageResponse findAllPostsByLike(String keyword) {
         List<PostResponse> postList = postRepository.findAllPostsByKeyword(keyword)
                 .map(e -> e.stream().map(PostDto::fromPost)
                         .collect(Collectors.toList()))
@@ -106,7 +148,6 @@ public class PostService {
         return MyPageResponse.of(postList, List.of());
     }
 
-
     /**
      * 내가 작성한 게시글 반환
      * @param userPrincipalUsername
@@ -132,7 +173,14 @@ public class PostService {
         }
         postRepository.remove(post);
         commentRepository.deleteByPostId(postId);
+        Map<Long, Long> unreadCounts = alarmRepository.countUnreadByPostId(postId); // 지우기 전에 세야 카운터에서 뺄 수 있다.
         alarmRepository.deleteByPostId(postId);
+        unreadCounts.forEach((userId, count) -> eventPublisher.publishEvent(UnreadCountChangedEvent.of(userId, -count)));
+        eventPublisher.publishEvent(PostChangedEvent.deleted(postId, dtypeOf(post)));
+    }
+
+    private String dtypeOf(Post post) {
+        return post instanceof TeamBuildingPost ? PostCounter.TEAM_POST : PostCounter.POST;
     }
 
     /**
@@ -0,0 +1,107 @@
+package com.example.ola.service;
+
+import com.example.ola.config.RateLimitProperties;
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import com.example.ola.utils.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * scope(경로) + id(IP, username) 별 토큰 버킷 저장소
+ * 가득 찬(유휴) 버킷은 주기적으로 지워 메모리를 제한하고,
+ * 그래도 maxBuckets 를 넘으면 새 IP 들은 scope 별 공용 버킷을 함께 쓰고, 새 username 은 IP 제한에만 맡긴다.
+ * 요청 스레드에서는 정리하지 않는다.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private static final String OVERFLOW_ID = "*";
+    private static final String USERNAME_SCOPE = "username";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("rate.limit.buckets", Tags.empty(), buckets);
+    }
+
+    /**
+     * 토큰 하나를 가져온다. 버킷이 maxBuckets 개 이상이면 새 id 는 scope 별 공용 버킷을 쓴다.
+     * @param scope
+     * @param id
+     * @param capacity
+     * @param refillPerSecond
+     * @return 성공하면 0, 거절되면 다음 토큰까지 기다려야 하는 nanos
+     */
+    public long tryAcquire(String scope, String id, long capacity, double refillPerSecond) {
+        long now = System.nanoTime();
+        TokenBucket bucket = findOrCreate(scope + ":" + id, capacity, refillPerSecond, now);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(scope + ":" + OVERFLOW_ID, k -> new TokenBucket(capacity, refillPerSecond, now));
+        }
+        return acquire(scope, bucket, now);
+    }
+
+    /**
+     * username 별 로그인 시도 제한, 존재하는 유저를 찾은 뒤 bcrypt 검사 전에 호출한다.
+     * username 은 요청자가 정하는 값이라 버킷이 maxBuckets 개 이상이면 공용 버킷을 쓰지 않고 통과시킨다.
+     * 공용 버킷을 쓰면 임의의 username 으로 모든 유저의 로그인을 막을 수 있다. 이때는 IP 별 login 제한만 적용된다.
+     * @param username
+     */
+    public void acquireForUsername(String username) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RateLimitProperties.Rule rule = properties.getUsername();
+        long now = System.nanoTime();
+        TokenBucket bucket = findOrCreate(USERNAME_SCOPE + ":" + username, rule.getCapacity(), rule.getRefillPerSecond(), now);
+        if (bucket == null) {
+            meterRegistry.counter("rate.limit.overflow", "route", USERNAME_SCOPE).increment();
+            return;
+        }
+        if (acquire(USERNAME_SCOPE, bucket, now) > 0) {
+            throw new OlaApplicationException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+    }
+
+    /**
+     * @return 버킷, 없는데 maxBuckets 개 이상이라 만들 수 없으면 null
+     */
+    private TokenBucket findOrCreate(String key, long capacity, double refillPerSecond, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                return null;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+        }
+        return bucket;
+    }
+
+    private long acquire(String scope, TokenBucket bucket, long now) {
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter("rate.limit.rejected", "route", scope).increment();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 유휴 버킷 정리
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(e -> e.getValue().isIdle(now));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.EmitterRepository;
+import com.example.ola.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 노드 단위 SSE 연결 수락 제어
+ * 배포 직후처럼 모든 클라이언트가 한 번에 재연결할 때 동시 연결 수와 초당 수락 수를 제한한다.
+ * 로그인하지 않은 구독(팀 채널)은 별도의 작은 bucket 을 써서 로그인한 유저의 수락 몫을 소진하지 못한다.
+ * 동시 연결 수는 검사 시점의 값이라 동시에 들어온 요청만큼 잠깐 넘을 수 있다.
+ */
+@Component
+public class SseAdmission {
+    private final EmitterRepository emitterRepository;
+    private final boolean enabled;
+    private final int maxConnections;
+    private final TokenBucket acceptBucket;
+    private final TokenBucket anonymousAcceptBucket;
+    private final long retryBaseMs;
+    private final long retryJitterMs;
+    private final Counter acceptedCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter fullCounter;
+
+    public SseAdmission(
+            EmitterRepository emitterRepository,
+            @Value("${alarm.sse.admission.enabled:true}") boolean enabled,
+            @Value("${alarm.sse.admission.max-connections:10000}") int maxConnections,
+            @Value("${alarm.sse.admission.burst:200}") long burst,
+            @Value("${alarm.sse.admission.accept-per-second:100}") double acceptPerSecond,
+            @Value("${alarm.sse.admission.anonymous-burst:20}") long anonymousBurst,
+            @Value("${alarm.sse.admission.anonymous-accept-per-second:10}") double anonymousAcceptPerSecond,
+            @Value("${alarm.sse.admission.retry-base-ms:3000}") long retryBaseMs,
+            @Value("${alarm.sse.admission.retry-jitter-ms:7000}") long retryJitterMs,
+            MeterRegistry meterRegistry) {
+        this.emitterRepository = emitterRepository;
+        this.enabled = enabled;
+        this.maxConnections = maxConnections;
+        this.acceptBucket = new TokenBucket(burst, acceptPerSecond, System.nanoTime());
+        this.anonymousAcceptBucket = new TokenBucket(anonymousBurst, anonymousAcceptPerSecond, System.nanoTime());
+        this.retryBaseMs = retryBaseMs;
+        this.retryJitterMs = retryJitterMs;
+        this.acceptedCounter = meterRegistry.counter("alarm.sse.admission", "result", "accepted");
+        this.rateLimitedCounter = meterRegistry.counter("alarm.sse.admission", "result", "rate_limited");
+        this.fullCounter = meterRegistry.counter("alarm.sse.admission", "result", "full");
+    }
+
+    /**
+     * 로그인한 유저의 연결 하나를 수락한다. 연결 수가 가득 찼으면 토큰을 쓰지 않고 거절한다.
+     * @return 수락하면 0, 거절하면 클라이언트가 다시 시도하기까지 기다릴 millis
+     */
+    public long tryAdmit() {
+        return tryAdmit(acceptBucket);
+    }
+
+    /**
+     * 로그인하지 않은 연결 하나를 수락한다.
+     * @return 수락하면 0, 거절하면 클라이언트가 다시 시도하기까지 기다릴 millis
+     */
+    public long tryAdmitAnonymous() {
+        return tryAdmit(anonymousAcceptBucket);
+    }
+
+    private long tryAdmit(TokenBucket bucket) {
+        if (!enabled) {
+            return 0;
+        }
+        if (emitterRepository.count() + emitterRepository.subscriberCount() >= maxConnections) {
+            fullCounter.increment();
+            return reconnectTimeMillis();
+        }
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rateLimitedCounter.increment();
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos) + reconnectTimeMillis();
+        }
+        acceptedCounter.increment();
+        return 0;
+    }
+
+    /**
+     * 연결마다 다른 재연결 대기 시간, 한 번에 끊긴 연결들이 같은 시각에 돌아오지 않도록 흩뿌린다.
+     * @return long
+     */
+    public long reconnectTimeMillis() {
+        return retryBaseMs + ThreadLocalRandom.current().nextLong(retryJitterMs + 1);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.EmitterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 연결별 크기가 제한된 전송 큐
+ * 호출한 스레드는 큐에 넣기만 하고, 공용 writer 스레드가 연결마다 한 번에 하나씩 꺼내 보낸다.
+ * 느린 클라이언트는 자신의 큐만 채우고, 큐가 가득 차면 overflowPolicy 에 따라 처리한다.
+ * 큐는 emitter 를 weak key 로 들고 있어 저장소에서 빠진 emitter 의 큐는 함께 정리된다.
+ * 실패한 연결의 큐는 닫힌 채로 남겨, 뒤늦게 들어온 이벤트가 새 큐를 만들어 다시 쓰거나 연결을 두 번 정리하지 않게 한다.
+ */
+@Slf4j
+@Component
+public class SseWriter {
+    private static final int DRAIN_BATCH = 32;
+
+    private final EmitterRepository emitterRepository;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Cache<SseEmitter, Outbox> outboxes;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Counter droppedCounter;
+    private final Counter disconnectedCounter;
+    private final Counter reapedCounter;
+
+    /**
+     * 큐가 가득 찼을 때의 정책
+     * DROP_OLDEST : 가장 오래된 이벤트를 버린다. 알람은 목록 조회나 재연결로 다시 받을 수 있다.
+     * DISCONNECT : 연결을 끊는다. 클라이언트가 재연결하면서 Last-Event-ID 로 놓친 알람을 받는다.
+     */
+    public enum OverflowPolicy {
+        DROP_OLDEST, DISCONNECT
+    }
+
+    public SseWriter(
+            EmitterRepository emitterRepository,
+            @Value("${alarm.sse.writer-threads:4}") int writerThreads,
+            @Value("${alarm.sse.queue-capacity:64}") int queueCapacity,
+            @Value("${alarm.sse.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            MeterRegistry meterRegistry) {
+        this.emitterRepository = emitterRepository;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.outboxes = Caffeine.newBuilder().weakKeys().build();
+        this.executor = new ThreadPoolExecutor(
+                writerThreads, writerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), // 연결마다 작업은 최대 하나라 연결 수로 제한된다.
+                new CustomizableThreadFactory("sse-writer-"));
+        this.droppedCounter = meterRegistry.counter("alarm.sse.dropped");
+        this.disconnectedCounter = meterRegistry.counter("alarm.sse.disconnected");
+        this.reapedCounter = meterRegistry.counter("alarm.sse.reaped");
+        Gauge.builder("alarm.sse.queue.depth", queueDepth, AtomicInteger::get).register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "sseWriter", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * 이벤트를 연결의 큐에 넣는다. SseEventBuilder 는 한 번만 보낼 수 있으므로 연결마다 새로 만들어 넘긴다.
+     * @param userId
+     * @param emitter
+     * @param event
+     */
+    public void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        offer(emitter, event, false, () -> emitterRepository.delete(userId, emitter));
+    }
+
+    /**
+     * 큐가 비어 있을 때만 넣는다. 보낼 이벤트가 쌓여 있으면 heartbeat 는 필요 없다.
+     * @param userId
+     * @param emitter
+     * @param event
+     */
+    public void sendIfIdle(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        offer(emitter, event, true, () -> emitterRepository.delete(userId, emitter));
+    }
+
+    /**
+     * 팀 채널 구독 연결로 보낸다. 실패한 연결은 채널에서 구독 해제한다.
+     * @param postId
+     * @param emitter
+     * @param event
+     */
+    public void sendToChannel(Long postId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        offer(emitter, event, false, () -> emitterRepository.unsubscribe(postId, emitter));
+    }
+
+    public void sendToChannelIfIdle(Long postId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        offer(emitter, event, true, () -> emitterRepository.unsubscribe(postId, emitter));
+    }
+
+    /**
+     * release 는 연결을 저장소에서 빼는 동작이다. emitter 를 참조하므로 Outbox 에 담지 않고 작업에만 넘긴다.
+     */
+    private void offer(SseEmitter emitter, SseEmitter.SseEventBuilder event, boolean onlyIfIdle, Runnable release) {
+        Outbox outbox = outboxes.get(emitter, key -> new Outbox());
+        boolean overflowed;
+        synchronized (outbox) {
+            if (outbox.closed || (onlyIfIdle && !outbox.events.isEmpty())) {
+                return;
+            }
+            if (outbox.events.size() < queueCapacity || overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                if (outbox.events.size() >= queueCapacity) {
+                    outbox.events.pollFirst();
+                    queueDepth.decrementAndGet();
+                    droppedCounter.increment();
+                }
+                outbox.events.addLast(event);
+                queueDepth.incrementAndGet();
+                overflowed = false;
+            } else {
+                overflowed = true;
+            }
+        }
+        if (overflowed) {
+            disconnect(emitter, outbox, release);
+            return;
+        }
+        schedule(emitter, outbox, release);
+    }
+
+    private void schedule(SseEmitter emitter, Outbox outbox, Runnable release) {
+        if (outbox.scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(emitter, outbox, release));
+            } catch (RejectedExecutionException e) {
+                outbox.scheduled.set(false); // 종료 중
+            }
+        }
+    }
+
+    /**
+     * 한 번에 DRAIN_BATCH 개까지 보내고, 남아 있으면 다시 작업을 등록해 다른 연결과 번갈아 처리한다.
+     */
+    private void drain(SseEmitter emitter, Outbox outbox, Runnable release) {
+        try {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (outbox) {
+                    event = outbox.events.pollFirst();
+                }
+                if (event == null) {
+                    break;
+                }
+                queueDepth.decrementAndGet();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // 컨테이너가 에러 콜백으로 async 요청을 정리하므로 complete 를 호출하지 않는다.
+                    if (discard(outbox, release)) {
+                        reapedCounter.increment();
+                    }
+                    return;
+                }
+            }
+        } finally {
+            outbox.scheduled.set(false);
+        }
+        boolean remaining;
+        synchronized (outbox) {
+            remaining = !outbox.events.isEmpty();
+        }
+        if (remaining) {
+            schedule(emitter, outbox, release);
+        }
+    }
+
+    private void disconnect(SseEmitter emitter, Outbox outbox, Runnable release) {
+        if (!discard(outbox, release)) {
+            return;
+        }
+        disconnectedCounter.increment();
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("failed to complete slow sse connection", e);
+        }
+    }
+
+    /**
+     * 큐를 닫고 연결을 한 번만 정리한다. 닫힌 큐는 emitter 가 수거될 때 weak key 와 함께 사라진다.
+     * @return 이미 닫혀 있었으면 false
+     */
+    private boolean discard(Outbox outbox, Runnable release) {
+        synchronized (outbox) {
+            if (outbox.closed) {
+                return false;
+            }
+            outbox.closed = true;
+            queueDepth.addAndGet(-outbox.events.size());
+            outbox.events.clear();
+        }
+        release.run();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class Outbox {
+        private final ArrayDeque<SseEmitter.SseEventBuilder> events = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private boolean closed; // outbox 로 동기화
+    }
+}
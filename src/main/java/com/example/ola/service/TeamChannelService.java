@@ -0,0 +1,69 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.TeamBuildingPost;
+import com.example.ola.dto.response.TeamMembersResponse;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import com.example.ola.repository.EmitterRepository;
+import com.example.ola.repository.TeamPostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+/**
+ * 팀 모집 게시글 채널
+ * 상세 페이지를 보는 연결이 postId 채널을 구독하고, 멤버 / 대기열이 바뀌면 구독자 집합 전체로 한 번에 보낸다.
+ * 변경은 AlarmDispatcher 가 AlarmBus 로 발행하므로 다른 노드에 연결된 구독자도 받는다.
+ * 로그인하지 않은 사용자도 구독할 수 있으며, 알람과 달리 저장하지 않는 현재 상태만 보낸다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class TeamChannelService {
+    private final EmitterRepository emitterRepository;
+    private final TeamPostRepository teamPostRepository;
+    private final SseWriter sseWriter;
+    private final SseAdmission sseAdmission;
+    private final static String MEMBERS_NAME = "members";
+
+    /**
+     * 채널 구독, 구독 직후 현재 멤버 수와 흩뿌린 재연결 대기 시간을 보낸다.
+     * 구독하는 순간부터 broadcast 도 같은 연결로 보낼 수 있으므로 첫 이벤트도 SseWriter 의 전송 큐로 보내고,
+     * 전송에 실패하면 SseWriter 가 구독을 해제한다.
+     * @param postId
+     * @return SseEmitter
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long postId) {
+        TeamBuildingPost post = teamPostRepository.findTeamPostById(postId)
+                .orElseThrow(() -> new OlaApplicationException(ErrorCode.POST_NOT_FOUND));
+        SseEmitter sseEmitter = emitterRepository.subscribe(postId);
+        sseWriter.sendToChannel(postId, sseEmitter,
+                membersEvent(TeamMembersResponse.fromEvent(TeamMembersChangedEvent.fromPost(post)))
+                        .reconnectTime(sseAdmission.reconnectTimeMillis()));
+        return sseEmitter;
+    }
+
+    /**
+     * 이 노드에 연결된 채널의 모든 구독자에게 보낸다. AlarmSender 의 워커 스레드에서 호출된다.
+     * @param event
+     */
+    public void broadcast(TeamMembersChangedEvent event) {
+        Collection<SseEmitter> subscribers = emitterRepository.getSubscribers(event.getPostId());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        TeamMembersResponse response = TeamMembersResponse.fromEvent(event);
+        subscribers.forEach(sseEmitter -> sseWriter.sendToChannel(event.getPostId(), sseEmitter, membersEvent(response)));
+    }
+
+    private SseEmitter.SseEventBuilder membersEvent(TeamMembersResponse response) {
+        return SseEmitter.event().name(MEMBERS_NAME).data(response, MediaType.APPLICATION_JSON);
+    }
+}
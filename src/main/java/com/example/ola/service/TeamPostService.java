@@ -1,6 +1,7 @@
 package com.example.ola.service;
 
 import com.example.ola.domain.*;
+import com.example.ola.dto.AlarmDto;
 import com.example.ola.dto.TeamPostDto;
 import com.example.ola.dto.UserDto;
 import com.example.ola.dto.request.HomeGymRequest;
@@ -8,6 +9,10 @@ import com.example.ola.dto.request.TeamPostUpdateRequest;
 import com.example.ola.dto.request.TeamPostWriteRequest;
 import com.example.ola.dto.response.MyPageResponse;
 import com.example.ola.dto.response.TeamPostResponse;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.event.TeamAlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.repository.AlarmRepository;
@@ -17,11 +22,16 @@ import com.example.ola.repository.UserRepository;
 import com.example.ola.utils.Paging;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,7 +43,10 @@ public class TeamPostService {
     private final UserRepository userRepository;
     private final AlarmRepository alarmRepository;
     private final HomeGymRepository homeGymRepository;
-    private final AlarmService alarmService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostCounter postCounter;
+    private final PostSearchIndex postSearchIndex;
+    private final PostPageCache postPageCache;
     private static final int TEAM_POST_SIZE = 9;
 
     /**
@@ -63,36 +76,58 @@ public class TeamPostService {
 
     /**
      * 페이징된 게시글 반환
+     * after 가 있으면 그 id 다음부터 seek 하고, 없으면 start 페이지로 이동한다. 페이지 번호 목록은 두 경우 모두 start 기준이다.
+     * after 없이 조회하는 앞쪽 페이지는 PostPageCache 에서 반환한다.
      * @param start
      * @param keyword
      * @param place
+     * @param after
      * @return MyPageResponse
      */
-    public MyPageResponse findAllTeamPostsWithPaging(int start, String keyword, String place) {
+    public MyPageResponse findAllTeamPostsWithPaging(int start, String keyword, String place, Long after) {
         if (place.equals("장소")) {
-            return findAllTeamPostsByPlace(keyword);
+            return findAllTeamPostsByPlace(keyword, start);
         }
         if (StringUtils.hasText(keyword)) {
-            return findAllTeamPostsByKeyword(keyword);
+            return findAllTeamPostsByKeyword(keyword, start);
         }
-        List<TeamPostResponse> postList = teamPostRepository.findAllTeamPostsWithPaging(start)
+        if (after == null) {
+            return postPageCache.get(PostCounter.TEAM_POST, start, () -> loadTeamPostPage(start, null));
+        }
+        return loadTeamPostPage(start, after);
+    }
+
+    private MyPageResponse loadTeamPostPage(int start, Long after) {
+        List<TeamPostResponse> postList = (after == null ? teamPostRepository.findAllTeamPostsWithPaging(start) : teamPostRepository.findAllTeamPostsAfter(after))
                 .orElseThrow(() -> new OlaApplicationException(ErrorCode.POST_NOT_FOUND))
                 .stream().map(TeamPostDto::fromPost)
                 .map(TeamPostResponse::fromTeamPostDto)
                 .collect(Collectors.toList());
-        List<Integer> pageList = Paging.getPageList(teamPostRepository.getPostCount("T").intValue(), TEAM_POST_SIZE, start);
-        return MyPageResponse.of(postList, pageList);
+        List<Integer> pageList = Paging.getPageList((int) postCounter.get(PostCounter.TEAM_POST), TEAM_POST_SIZE, start);
+        Long nextCursor = postList.size() < TEAM_POST_SIZE ? null : postList.get(postList.size() - 1).getId();
+        return MyPageResponse.of(postList, pageList, nextCursor);
     }
 
     /**
      * 제목으로 검색한 페이징 게시글 반환
+     * 검색 색인이 준비되어 있으면 관련도순 start 페이지를 id 로 조회하고, 아니면 like 검색으로 대신한다.
      * @param keyword
+     * @param start
      * @return MyPageResponse
      */
-    public MyPageResponse findAllTeamPostsByKeyword(String keyword) {
+    public MyPageResponse findAllTeamPostsByKeyword(String keyword, int start) {
         if (!StringUtils.hasText(keyword)) {
             throw new OlaApplicationException(ErrorCode.INVALID_KEYWORD);
         }
+        int page = Math.max(start, 0);
+        return postSearchIndex.search(PostCounter.TEAM_POST, keyword, page * TEAM_POST_SIZE, TEAM_POST_SIZE)
+                .map(result -> MyPageResponse.of(
+                        findAllTeamPostsInOrder(result.getIds()),
+                        Paging.getPageList(result.getTotal(), TEAM_POST_SIZE, page)))
+                .orElseGet(() -> findAllTeamPostsByLike(keyword));
+    }
+
+    private MyPageResponse findAllTeamPostsByLike(String keyword) {
         List<TeamPostResponse> postList = teamPostRepository.findAllTeamPostsByKeyword(keyword)
                 .map(e -> e.stream().map(TeamPostDto::fromPost)
                         .collect(Collectors.toList()))
@@ -104,13 +139,25 @@ public class TeamPostService {
 
     /**
      * 장소로 검색한 페이징 게시글 반환
+     * 헬스장 도로명 주소의 구역("강남구", "서울 역삼동" 등)으로 찾은 start 페이지를 최신순으로 id 로 조회한다.
+     * 장소 색인이 준비되지 않았으면 주소 like 검색으로 대신한다.
      * @param keyword
+     * @param start
      * @return MyPageResponse
      */
-    public MyPageResponse findAllTeamPostsByPlace(String keyword) {
+    public MyPageResponse findAllTeamPostsByPlace(String keyword, int start) {
         if (!StringUtils.hasText(keyword)) {
             throw new OlaApplicationException(ErrorCode.INVALID_KEYWORD);
         }
+        int page = Math.max(start, 0);
+        return postSearchIndex.searchPlace(keyword, page * TEAM_POST_SIZE, TEAM_POST_SIZE)
+                .map(result -> MyPageResponse.of(
+                        findAllTeamPostsInOrder(result.getIds()),
+                        Paging.getPageList(result.getTotal(), TEAM_POST_SIZE, page)))
+                .orElseGet(() -> findAllTeamPostsByPlaceLike(keyword));
+    }
+
+    private MyPageResponse findAllTeamPostsByPlaceLike(String keyword) {
         List<TeamPostResponse> postList = teamPostRepository.findAllTeamPostsByPlace(keyword)
                 .map(e -> e.stream().map(TeamPostDto::fromPost)
                         .collect(Collectors.toList()))
@@ -120,6 +167,22 @@ public class TeamPostService {
         return MyPageResponse.of(postList, List.of());
     }
 
+    /**
+     * 색인이 정한 순서대로 게시글을 조회한다. 그 사이 삭제된 게시글은 빠진다.
+     * @param ids
+     * @return List<TeamPostResponse>
+     */
+    private List<TeamPostResponse> findAllTeamPostsInOrder(List<Long> ids) {
+        Map<Long, TeamBuildingPost> posts = teamPostRepository.findAllTeamPostsByIds(ids).stream()
+                .collect(Collectors.toMap(TeamBuildingPost::getId, Function.identity()));
+        return ids.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .map(TeamPostDto::fromPost)
+                .map(TeamPostResponse::fromTeamPostDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * 게시글 작성, 자신은 자신의 팀 모집에 무조건 포함되어야 함
      * @param teamPostWriteRequest
@@ -139,7 +202,9 @@ public class TeamPostService {
                 checkDuplicateHomeGymAndGetHomeGym(teamPostWriteRequest.getHomeGymRequest()),
                 teamPostWriteRequest.getLimits());
         post.getMembers().add(TeamMember.of(post, post.getUser()));
-        return TeamPostDto.fromPost(teamPostRepository.saveTeamPost(post));
+        TeamPostDto teamPostDto = TeamPostDto.fromPost(teamPostRepository.saveTeamPost(post));
+        eventPublisher.publishEvent(PostChangedEvent.written(post.getId(), PostCounter.TEAM_POST, post.getTitle(), post.getContent(), post.getHomeGym().getRoadAddressName()));
+        return teamPostDto;
     }
 
     /**
@@ -155,6 +220,7 @@ public class TeamPostService {
             throw new OlaApplicationException(ErrorCode.UNAUTHORIZED_BEHAVIOR);
         }
         foundedPost.update(param.getTitle(), param.getContent(), param.getImgUri(), checkDuplicateHomeGymAndGetHomeGym(param.getHomeGymRequest()), param.getLimits());
+        eventPublisher.publishEvent(PostChangedEvent.updated(foundedPost.getId(), PostCounter.TEAM_POST, foundedPost.getTitle(), foundedPost.getContent(), foundedPost.getHomeGym().getRoadAddressName()));
         return TeamPostDto.fromPost(foundedPost);
     }
 
@@ -194,6 +260,7 @@ public class TeamPostService {
             throw new OlaApplicationException(ErrorCode.UNAUTHORIZED_BEHAVIOR);
         }
         teamPostRepository.remove(post);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(postId, PostCounter.TEAM_POST));
     }
 
     /**
@@ -210,7 +277,7 @@ public class TeamPostService {
     }
 
     /**
-     * 유저를 대기열에 저장하고 알람을 전송한다.
+     * 유저를 대기열에 저장하고 알람을 전송한다. 채널 구독자에게는 바뀐 멤버 수를 보낸다.
      * @param id
      * @param userPrincipalUsername
      */
@@ -225,8 +292,8 @@ public class TeamPostService {
                     throw new OlaApplicationException(ErrorCode.DUPLICATED_MEMBER);
                 });
         post.getWaitLists().add(TeamMemberWaitList.of(post, user));
-        sendAlarmToAllMembers(userPrincipalUsername, post, AlarmType.WAITING);
-        sendAlarmToAllWaitLists(userPrincipalUsername, post, AlarmType.WAITING);
+        sendAlarmToTeam(userPrincipalUsername, post, AlarmType.WAITING);
+        eventPublisher.publishEvent(TeamMembersChangedEvent.fromPost(post));
     }
 
     /**
@@ -253,45 +320,43 @@ public class TeamPostService {
         } else {
             throw new OlaApplicationException(ErrorCode.BAD_REQUEST);
         }
-        removeWaitListMember(id, memberId, userPrincipalUsername); // 대기열에 있던 유저는 삭제하고 멤버에 편입한다.
-        sendAlarmToAllMembers(userPrincipalUsername, post, AlarmType.JOIN);
-        sendAlarmToAllWaitLists(userPrincipalUsername, post, AlarmType.JOIN);
+        removeWaitListMember(id, memberId, userPrincipalUsername); // 대기열에 있던 유저는 삭제하고 멤버에 편입한다. 채널 이벤트도 여기서 발행된다.
+        sendAlarmToTeam(userPrincipalUsername, post, AlarmType.JOIN);
     }
 
     /**
-     * 모든 멤버에게 알람 전송
+     * 작성자를 제외한 모든 멤버와 대기열에 알람 전송
+     * 알람은 한 번에 저장하고, 커밋 이후 수신자 전체를 담은 이벤트 하나로 AlarmBus 에 한 번 발행한다.
      * @param userPrincipalUsername
      * @param post
      * @param alarmType
      */
-    private void sendAlarmToAllMembers(String userPrincipalUsername, TeamBuildingPost post, AlarmType alarmType) {
-        post.getMembers().forEach(e -> {
-            if (!e.getUser().getUsername().equals(userPrincipalUsername)) {
-                Alarm alarm = alarmRepository.save(Alarm.of(
-                        e.getUser(),
-                        AlarmArgs.of(post.getId(), userPrincipalUsername),
-                        alarmType));
-                alarmService.send(alarm.getId(), e.getUser().getId());
-            }
-        });
+    private void sendAlarmToTeam(String userPrincipalUsername, TeamBuildingPost post, AlarmType alarmType) {
+        List<Alarm> alarms = new ArrayList<>();
+        post.getMembers().forEach(e -> addAlarm(alarms, e.getUser(), userPrincipalUsername, post, alarmType));
+        post.getWaitLists().forEach(e -> addAlarm(alarms, e.getUser(), userPrincipalUsername, post, alarmType));
+        if (alarms.isEmpty()) {
+            return;
+        }
+        List<Long> alarmIds = alarmRepository.saveAll(alarms);
+        List<AlarmEvent> events = new ArrayList<>(alarms.size());
+        for (int i = 0; i < alarms.size(); i++) {
+            Alarm alarm = alarms.get(i);
+            AlarmDto alarmDto = AlarmDto.of(
+                    alarmIds.get(i),
+                    alarm.getUser().getUsername(),
+                    alarm.getArgs().getFromUser(),
+                    alarm.getArgs().getPostId(),
+                    alarm.getAlarmType());
+            events.add(AlarmEvent.of(alarmDto, alarm.getUser().getId()));
+        }
+        eventPublisher.publishEvent(TeamAlarmEvent.of(events));
     }
 
-    /**
-     * 모든 대기열에 알람 전송
-     * @param userPrincipalUsername
-     * @param post
-     * @param alarmType
-     */
-    private void sendAlarmToAllWaitLists(String userPrincipalUsername, TeamBuildingPost post, AlarmType alarmType) {
-        post.getWaitLists().forEach(e -> {
-            if (!e.getUser().getUsername().equals(userPrincipalUsername)) {
-                Alarm alarm = alarmRepository.save(Alarm.of(
-                        e.getUser(),
-                        AlarmArgs.of(post.getId(), userPrincipalUsername),
-                        alarmType));
-                alarmService.send(alarm.getId(), e.getUser().getId());
-            }
-        });
+    private void addAlarm(List<Alarm> alarms, User receiver, String userPrincipalUsername, TeamBuildingPost post, AlarmType alarmType) {
+        if (!receiver.getUsername().equals(userPrincipalUsername)) {
+            alarms.add(Alarm.of(receiver, AlarmArgs.of(post.getId(), userPrincipalUsername), alarmType));
+        }
     }
 
     /**
@@ -305,6 +370,7 @@ public class TeamPostService {
         TeamBuildingPost post = checkValidAndGetPost(postId, userId, userPrincipalUsername);
         TeamMember teamMember = teamPostRepository.findTeamMemberByPostIdAndUserId(postId, userId);
         post.getMembers().remove(teamMember);
+        eventPublisher.publishEvent(TeamMembersChangedEvent.fromPost(post));
     }
 
     /**
@@ -318,6 +384,7 @@ public class TeamPostService {
         TeamBuildingPost post = checkValidAndGetPost(postId, userId, userPrincipalUsername);
         TeamMemberWaitList waitListMember = teamPostRepository.findWaitListMemberByPostIdAndUserId(postId, userId);
         post.getWaitLists().remove(waitListMember);
+        eventPublisher.publishEvent(TeamMembersChangedEvent.fromPost(post));
     }
 
     /**
@@ -355,6 +422,7 @@ public class TeamPostService {
             throw new OlaApplicationException(ErrorCode.MEMBERS_NOT_ENOUGH);
         }
         teamBuildingPost.updateStatus(TeamBuildingStatus.CONFIRMED);
+        eventPublisher.publishEvent(TeamMembersChangedEvent.fromPost(teamBuildingPost));
     }
 
     private User getUserByUserIdOrElseThrow(Long userId) {
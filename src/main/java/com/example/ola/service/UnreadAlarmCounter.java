@@ -0,0 +1,118 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.AlarmRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * userId 별 읽지 않은 알람 수
+ * 처음 조회할 때만 DB 에서 세고, 이후에는 알람 저장 커밋 / 읽음 / 삭제 시 증감한다.
+ * 적재할 때 본 가장 큰 알람 id 를 함께 기억해, 적재 전에 커밋된 알람의 증가분은 다시 더하지 않는다.
+ * 다른 노드에서 읽음 처리된 경우처럼 어긋난 값은 주기적으로 DB 와 맞춘다.
+ */
+@Slf4j
+@Component
+public class UnreadAlarmCounter {
+    private static final String CACHE_NAME = "unreadAlarmCount";
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final AlarmRepository alarmRepository;
+    private final Cache<Long, Counter> counters;
+
+    public UnreadAlarmCounter(
+            AlarmRepository alarmRepository,
+            @Value("${alarm.unread.max-users:10000}") long maxUsers,
+            @Value("${alarm.unread.expire-after-access-minutes:60}") long expireAfterAccessMinutes,
+            MeterRegistry meterRegistry) {
+        this.alarmRepository = alarmRepository;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, CACHE_NAME);
+    }
+
+    @Transactional(readOnly = true)
+    public long get(Long userId) {
+        return counters.get(userId, key -> new Counter(alarmRepository.countUnreadWithMaxId(key))).count.get();
+    }
+
+    /**
+     * 캐시된 값이 있을 때만 증감한다. 없으면 다음 조회에서 DB 로부터 적재된다.
+     * @param userId
+     * @param delta
+     */
+    public void add(Long userId, long delta) {
+        Counter counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.add(delta);
+        }
+    }
+
+    /**
+     * 알람 저장이 커밋된 뒤 호출한다. 적재할 때 이미 센 알람이면 더하지 않는다.
+     * @param userId
+     * @param alarmId
+     */
+    public void added(Long userId, Long alarmId) {
+        Counter counter = counters.getIfPresent(userId);
+        if (counter != null && alarmId > counter.loadedUpTo) {
+            counter.add(1);
+        }
+    }
+
+    /**
+     * 다른 노드에서 저장된 알람처럼 증가분을 받지 못하는 경우, 다음 조회에서 DB 로부터 다시 적재한다.
+     * @param userId
+     */
+    public void invalidate(Long userId) {
+        counters.invalidate(userId);
+    }
+
+    /**
+     * 캐시된 유저의 값을 RECONCILE_BATCH_SIZE 명씩 묶어 DB 와 맞춘다.
+     */
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${alarm.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Long> userIds = new ArrayList<>(counters.asMap().keySet());
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> counts = alarmRepository.countUnreadByUserIds(batch);
+            batch.forEach(userId -> {
+                Counter counter = counters.getIfPresent(userId);
+                if (counter != null) {
+                    counter.count.set(counts.getOrDefault(userId, 0L));
+                }
+            });
+        }
+    }
+
+    private static class Counter {
+        private final AtomicLong count;
+        private final long loadedUpTo;
+
+        Counter(long[] countWithMaxId) {
+            this.count = new AtomicLong(countWithMaxId[0]);
+            this.loadedUpTo = countWithMaxId[1];
+        }
+
+        void add(long delta) {
+            count.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+        }
+    }
+}
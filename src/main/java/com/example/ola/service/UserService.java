@@ -3,20 +3,30 @@ package com.example.ola.service;
 import com.example.ola.domain.HomeGym;
 import com.example.ola.domain.User;
 import com.example.ola.domain.UserRole;
+import com.example.ola.dto.TokenDto;
 import com.example.ola.dto.UserDto;
 import com.example.ola.dto.request.HomeGymRequest;
 import com.example.ola.dto.request.UserRequest;
 import com.example.ola.dto.request.UserUpdateRequest;
+import com.example.ola.dto.security.UserPrincipal;
+import com.example.ola.event.UserUpdatedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.jwt.JwtTokenProvider;
+import com.example.ola.jwt.RevokedTokenRegistry;
+import com.example.ola.jwt.TokenVerification;
 import com.example.ola.repository.HomeGymRepository;
 import com.example.ola.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 
@@ -26,9 +36,13 @@ import java.util.List;
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final HomeGymRepository homeGymRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final RateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 회원가입
@@ -45,7 +59,7 @@ public class UserService {
                         User.of(
                                 userRequest.getUsername(),
                                 userRequest.getImgUri(),
-                                passwordEncoder.encode(userRequest.getPassword()),
+                                passwordHasher.encode(userRequest.getPassword()),
                                 userRequest.getNickname(),
                                 userRequest.getName(),
                                 userRequest.getAgeRange(),
@@ -63,6 +77,7 @@ public class UserService {
     public UserDto updateUser(String username, UserUpdateRequest updateParam) {
         User user = getUserByUsernameOrElseThrow(username);
         user.updateUser(updateParam.getName(), updateParam.getNickname(), checkDuplicateHomeGymAndGetHomeGym(updateParam.getHomeGymRequest()), updateParam.getImgUri());
+        eventPublisher.publishEvent(UserUpdatedEvent.of(username)); // 커밋 후 캐시된 principal 을 비운다.
         return UserDto.fromUser(user);
     }
 
@@ -91,17 +106,64 @@ public class UserService {
     }
 
     /**
-     * 로그인 jwt 토큰 반환
+     * 로그인 access 토큰과 refresh 토큰 반환
+     * bcrypt 를 기다리는 동안 DB 커넥션을 붙잡지 않도록 트랜잭션 밖에서 실행하고, 유저는 짧은 트랜잭션으로 읽는다.
+     * 토큰 발급은 DB 를 쓰지 않으므로 트랜잭션이 필요 없다.
      * @param username
      * @param password
-     * @return String
+     * @return TokenDto
      */
-    public String login(String username, String password) {
-        User user = getUserByUsernameOrElseThrow(username);
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TokenDto login(String username, String password) {
+        UserPrincipal principal = transactionTemplate.execute(status -> UserPrincipal.fromUser(getUserByUsernameOrElseThrow(username)));
+        rateLimiter.acquireForUsername(principal.getUsername()); // 없는 username 으로는 버킷을 만들지 않는다.
+        if (!passwordHasher.matches(password, principal.getPassword())) {
             throw new OlaApplicationException(ErrorCode.INVALID_PASSWORD);
         }
-        return jwtTokenProvider.createToken(username, List.of(UserRole.USER.name()));
+        return TokenDto.of(
+                jwtTokenProvider.createToken(principal, List.of(UserRole.USER.name())),
+                jwtTokenProvider.createRefreshToken(principal.getUsername()));
+    }
+
+    /**
+     * refresh 토큰 회전 : 사용한 refresh 토큰은 폐기하고 새 토큰 쌍을 발급한다.
+     * 이미 폐기된 토큰이 다시 쓰이면 탈취로 보고 같은 family 전체를 폐기한다.
+     * @param refreshToken
+     * @return TokenDto
+     */
+    public TokenDto refresh(String refreshToken) {
+        if (!StringUtils.hasText(refreshToken)) {
+            throw new OlaApplicationException(ErrorCode.INVALID_TOKEN);
+        }
+        TokenVerification verification = jwtTokenProvider.verifyRefreshToken(refreshToken);
+        if (verification.getFailure() == TokenVerification.Failure.REVOKED) {
+            revokeFamily(jwtTokenProvider.getFamilyId(verification.getClaims()));
+            throw new OlaApplicationException(ErrorCode.INVALID_TOKEN);
+        }
+        if (!verification.isValid()) {
+            throw new OlaApplicationException(ErrorCode.INVALID_TOKEN);
+        }
+        Claims claims = verification.getClaims();
+        try {
+            revokedTokenRegistry.revoke(claims.getId(), claims.getExpiration());
+        } catch (DataIntegrityViolationException e) { // 같은 토큰으로 동시에 회전을 시도한 경우
+            throw new OlaApplicationException(ErrorCode.INVALID_TOKEN);
+        }
+        User user = getUserByUsernameOrElseThrow(claims.getSubject());
+        return TokenDto.of(
+                jwtTokenProvider.createToken(UserPrincipal.fromUser(user), List.of(UserRole.USER.name())),
+                jwtTokenProvider.createRefreshToken(user.getUsername(), jwtTokenProvider.getFamilyId(claims)));
+    }
+
+    private void revokeFamily(String familyId) {
+        if (familyId == null || revokedTokenRegistry.isRevoked(familyId)) {
+            return;
+        }
+        try {
+            revokedTokenRegistry.revoke(familyId, jwtTokenProvider.getFamilyExpiration());
+        } catch (DataIntegrityViolationException e) {
+            log.info("refresh token family already revoked");
+        }
     }
 
     public UserDto findByUsername(String username) {
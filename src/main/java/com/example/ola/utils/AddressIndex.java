@@ -0,0 +1,311 @@
+package com.example.ola.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 도로명 주소의 행정 구역 계층 색인
+ * "서울 강남구 테헤란로 152 (역삼동)" 을 서울 > 강남구 > 역삼동 > 테헤란로 로 나누고, 각 구역 노드에 그 아래 모든 게시글 id 를 둔다.
+ * 검색어의 마지막 단어로 시작하는 구역 노드를 찾고, 앞 단어는 상위 구역으로 걸러낸 뒤 노드들의 id 를 합친다.
+ * 시 / 도 이름은 "서울특별시", "경기도" 처럼 적어도 "서울", "경기" 로 맞춘다.
+ */
+public class AddressIndex {
+    private static final String SEPARATOR = ">";
+    private static final Map<String, String> PROVINCES = Map.ofEntries(
+            Map.entry("서울특별시", "서울"), Map.entry("부산광역시", "부산"), Map.entry("대구광역시", "대구"),
+            Map.entry("인천광역시", "인천"), Map.entry("광주광역시", "광주"), Map.entry("대전광역시", "대전"),
+            Map.entry("울산광역시", "울산"), Map.entry("세종특별자치시", "세종"), Map.entry("경기도", "경기"),
+            Map.entry("강원도", "강원"), Map.entry("강원특별자치도", "강원"), Map.entry("충청북도", "충북"),
+            Map.entry("충청남도", "충남"), Map.entry("전라북도", "전북"), Map.entry("전북특별자치도", "전북"),
+            Map.entry("전라남도", "전남"), Map.entry("경상북도", "경북"), Map.entry("경상남도", "경남"),
+            Map.entry("제주특별자치도", "제주"));
+
+    private final Map<String, Postings> nodes = new HashMap<>(); // 구역 경로 -> 게시글 id
+    private final TreeMap<String, Set<String>> pathsByName = new TreeMap<>(); // 구역 이름 -> 구역 경로, 접두어로 찾는다.
+    private final Map<Long, List<String>> documentPaths = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 게시글의 주소를 색인한다. 이미 있으면 이전 주소를 빼고 다시 색인한다.
+     * @param id
+     * @param roadAddressName
+     */
+    public void put(long id, String roadAddressName) {
+        List<String> regions = tokenize(roadAddressName);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            putLocked(id, regions);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 아직 색인되지 않은 게시글만 색인한다.
+     * @param id
+     * @param roadAddressName
+     */
+    public void putIfAbsent(long id, String roadAddressName) {
+        List<String> regions = tokenize(roadAddressName);
+        lock.writeLock().lock();
+        try {
+            if (!documentPaths.containsKey(id)) {
+                putLocked(id, regions);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentPaths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 검색어에 맞는 구역의 게시글을 최신순으로 offset 부터 limit 개 반환한다.
+     * @param query
+     * @param offset
+     * @param limit
+     * @return 검색어에 구역 이름이 없으면 null
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> matched = new ArrayList<>();
+            for (String path : matchPaths(terms)) {
+                matched.add(nodes.get(path));
+            }
+            return merge(matched, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 마지막 단어로 시작하는 구역 중 앞 단어들이 순서대로 상위 구역에 있는 경로를 찾는다.
+     * 상위 구역이 이미 포함된 하위 구역은 id 가 겹치므로 뺀다.
+     */
+    private List<String> matchPaths(List<String> terms) {
+        String last = terms.get(terms.size() - 1);
+        List<String> candidates = new ArrayList<>();
+        for (Set<String> paths : pathsByName.subMap(last, true, last + Character.MAX_VALUE, false).values()) {
+            for (String path : paths) {
+                if (hasAncestors(path, terms)) {
+                    candidates.add(path);
+                }
+            }
+        }
+        Set<String> selected = new HashSet<>(candidates);
+        List<String> matched = new ArrayList<>();
+        for (String path : candidates) {
+            if (!hasSelectedAncestor(path, selected)) {
+                matched.add(path);
+            }
+        }
+        return matched;
+    }
+
+    private static boolean hasAncestors(String path, List<String> terms) {
+        String[] regions = path.split(SEPARATOR);
+        int term = 0;
+        for (int i = 0; i < regions.length - 1 && term < terms.size() - 1; i++) {
+            if (regions[i].startsWith(terms.get(term))) {
+                term++;
+            }
+        }
+        return term == terms.size() - 1;
+    }
+
+    private static boolean hasSelectedAncestor(String path, Set<String> selected) {
+        for (int i = path.lastIndexOf(SEPARATOR); i > 0; i = path.lastIndexOf(SEPARATOR, i - 1)) {
+            if (selected.contains(path.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 각 posting 의 끝(가장 큰 id)에서부터 큰 id 를 골라 내려가며 합친다. 노드 수가 적어 매번 선형으로 고른다.
+     */
+    private static SearchResult merge(List<Postings> lists, int offset, int limit) {
+        if (lists.size() == 1) {
+            Postings only = lists.get(0);
+            List<Long> page = new ArrayList<>();
+            for (int i = only.size - 1 - offset; i >= 0 && page.size() < limit; i--) {
+                page.add(only.ids[i]);
+            }
+            return new SearchResult(page, only.size);
+        }
+        int[] cursors = new int[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).size - 1;
+        }
+        List<Long> page = new ArrayList<>();
+        int total = 0;
+        while (true) {
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] >= 0) {
+                    max = Math.max(max, lists.get(i).ids[cursors[i]]);
+                }
+            }
+            if (max == Long.MIN_VALUE) {
+                break;
+            }
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] >= 0 && lists.get(i).ids[cursors[i]] == max) {
+                    cursors[i]--;
+                }
+            }
+            if (total >= offset && page.size() < limit) {
+                page.add(max);
+            }
+            total++;
+        }
+        return new SearchResult(page, total);
+    }
+
+    private void putLocked(long id, List<String> regions) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        List<String> paths = new ArrayList<>(regions.size());
+        StringBuilder path = new StringBuilder();
+        for (String region : regions) {
+            if (path.length() > 0) {
+                path.append(SEPARATOR);
+            }
+            String key = path.append(region).toString();
+            nodes.computeIfAbsent(key, k -> new Postings()).put(id);
+            pathsByName.computeIfAbsent(region, k -> new HashSet<>()).add(key);
+            paths.add(key);
+        }
+        documentPaths.put(id, paths);
+    }
+
+    private void removeLocked(long id) {
+        List<String> paths = documentPaths.remove(id);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            Postings node = nodes.get(path);
+            if (node != null && node.remove(id) && node.size == 0) {
+                nodes.remove(path);
+                String region = path.substring(path.lastIndexOf(SEPARATOR) + 1);
+                Set<String> named = pathsByName.get(region);
+                named.remove(path);
+                if (named.isEmpty()) {
+                    pathsByName.remove(region);
+                }
+            }
+        }
+    }
+
+    /**
+     * 주소를 상위 구역부터 나눈다. 건물 번호(숫자로 시작하는 단어) 이후는 버리고,
+     * 괄호 안의 법정동("역삼동", "신수동, 아파트명" 등)은 도로명 앞에 둔다.
+     * @param address
+     * @return List<String>
+     */
+    static List<String> tokenize(String address) {
+        List<String> regions = new ArrayList<>();
+        if (address == null || address.isBlank()) {
+            return regions;
+        }
+        String normalized = Normalizer.normalize(address, Normalizer.Form.NFC).trim();
+        String dong = null;
+        int open = normalized.indexOf('(');
+        if (open >= 0) {
+            int close = normalized.indexOf(')', open);
+            String inner = normalized.substring(open + 1, close < 0 ? normalized.length() : close);
+            dong = Arrays.stream(inner.split(","))
+                    .map(String::trim)
+                    .filter(AddressIndex::isDong)
+                    .findFirst()
+                    .orElse(null);
+            normalized = normalized.substring(0, open);
+        }
+        for (String word : normalized.split("\\s+")) {
+            if (word.isEmpty() || word.contains(SEPARATOR)) {
+                continue;
+            }
+            if (Character.isDigit(word.charAt(0))) {
+                break;
+            }
+            regions.add(regions.isEmpty() ? PROVINCES.getOrDefault(word, word) : word);
+        }
+        if (dong != null && !regions.isEmpty() && isRoad(regions.get(regions.size() - 1))) {
+            regions.add(regions.size() - 1, dong);
+        }
+        return regions;
+    }
+
+    private static boolean isDong(String word) {
+        return word.length() > 1 && (word.endsWith("동") || word.endsWith("가") || word.endsWith("읍") || word.endsWith("면") || word.endsWith("리"));
+    }
+
+    private static boolean isRoad(String word) {
+        return word.endsWith("로") || word.endsWith("길");
+    }
+
+    /**
+     * id 오름차순 posting, 새 글은 id 가 가장 크므로 대부분 뒤에 붙는다.
+     */
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void put(long id) {
+            int position = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.ola.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 제목 / 본문의 bigram 역색인
+ * 한글은 띄어쓰기 단위에 조사가 붙어 단어 단위로 나누면 "헬스장에서" 로 "헬스장" 을 찾지 못하므로,
+ * 글자(음절) 두 개씩 잘라 색인하고 검색어의 bigram 이 모두 들어 있는 문서를 찾는다.
+ * posting 은 id 오름차순 long[] 과 가중치 int[] 로 두고, 검색 시 가장 짧은 posting 을 기준으로 교집합을 구한다.
+ * 관련도는 bigram 별 (제목 빈도 * TITLE_WEIGHT + 본문 빈도) * idf 의 합이며, 같으면 최신 글이 먼저다.
+ */
+public class NgramIndex {
+    private static final int TITLE_WEIGHT = 3;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> documentGrams = new HashMap<>(); // 수정 / 삭제 시 posting 에서 빼는 데 쓴다.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 문서를 색인한다. 이미 있으면 이전 내용을 빼고 다시 색인한다.
+     * @param id
+     * @param title
+     * @param content
+     */
+    public void put(long id, String title, String content) {
+        Map<String, Integer> weights = weights(title, content);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            putLocked(id, weights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 아직 색인되지 않은 문서만 색인한다. 재색인 중에 먼저 반영된 더 최신 변경을 덮어쓰지 않기 위해 쓴다.
+     * @param id
+     * @param title
+     * @param content
+     */
+    public void putIfAbsent(long id, String title, String content) {
+        Map<String, Integer> weights = weights(title, content);
+        lock.writeLock().lock();
+        try {
+            if (!documentGrams.containsKey(id)) {
+                putLocked(id, weights);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentGrams.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 관련도순으로 offset 부터 limit 개의 id 를 반환한다.
+     * @param query
+     * @param offset
+     * @param limit
+     * @return 검색어로 bigram 을 만들 수 없으면(한 글자 검색어 등) null
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> queryGrams = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryGrams.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[queryGrams.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(queryGrams.get(i));
+                if (lists[i] == null) {
+                    return SearchResult.EMPTY;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+            return rank(lists, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 가장 짧은 posting 의 id 를 오름차순으로 돌며 나머지 posting 에서 이진 탐색한다.
+     * 나머지 posting 의 탐색 시작 위치는 앞으로만 움직이므로 한 번씩만 훑는다.
+     */
+    private SearchResult rank(Postings[] lists, int offset, int limit) {
+        double documentCount = documentGrams.size();
+        double[] idf = new double[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            idf[i] = Math.log(1 + documentCount / lists[i].size);
+        }
+        int[] cursors = new int[lists.length];
+        Postings shortest = lists[0];
+        TopK topK = new TopK((int) Math.min((long) offset + limit, shortest.size)); // 후보는 가장 짧은 posting 보다 많을 수 없다.
+        int total = 0;
+        candidates:
+        for (int c = 0; c < shortest.size; c++) {
+            long id = shortest.ids[c];
+            double score = idf[0] * shortest.weights[c];
+            for (int i = 1; i < lists.length; i++) {
+                int position = Arrays.binarySearch(lists[i].ids, cursors[i], lists[i].size, id);
+                if (position < 0) {
+                    cursors[i] = -position - 1;
+                    if (cursors[i] >= lists[i].size) {
+                        break candidates;
+                    }
+                    continue candidates;
+                }
+                cursors[i] = position + 1;
+                score += idf[i] * lists[i].weights[position];
+            }
+            total++;
+            topK.offer(id, score);
+        }
+        List<Long> ranked = topK.sorted();
+        List<Long> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+        return new SearchResult(page, total);
+    }
+
+    private void putLocked(long id, Map<String, Integer> weights) {
+        String[] grams = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new Postings()).put(id, entry.getValue());
+            grams[i++] = entry.getKey();
+        }
+        documentGrams.put(id, grams);
+    }
+
+    private void removeLocked(long id) {
+        String[] grams = documentGrams.remove(id);
+        if (grams == null) {
+            return;
+        }
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Map<String, Integer> weights(String title, String content) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(title).forEach(gram -> weights.merge(gram, TITLE_WEIGHT, Integer::sum));
+        tokenize(content).forEach(gram -> weights.merge(gram, 1, Integer::sum));
+        return weights;
+    }
+
+    /**
+     * NFC 정규화, 소문자화 후 글자 / 숫자가 아닌 문자로 단어를 나누고 단어마다 bigram 을 만든다.
+     * 한 글자 단어는 bigram 이 없어 색인하지 않으므로, 한 글자 검색어는 호출하는 쪽에서 like 검색으로 대신한다.
+     * @param text
+     * @return List<String>
+     */
+    static List<String> tokenize(String text) {
+        List<String> grams = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return grams;
+        }
+        int[] codePoints = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT).codePoints().toArray();
+        int start = 0;
+        while (start < codePoints.length) {
+            if (!Character.isLetterOrDigit(codePoints[start])) {
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < codePoints.length && Character.isLetterOrDigit(codePoints[end])) {
+                end++;
+            }
+            for (int i = start; i + 1 < end; i++) {
+                grams.add(new String(codePoints, i, 2));
+            }
+            start = end;
+        }
+        return grams;
+    }
+
+    /**
+     * id 오름차순 posting, 새 글은 id 가 가장 크므로 대부분 뒤에 붙는다.
+     */
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void put(long id, int weight) {
+            int position = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                weights[position] = weight;
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            weights[insertAt] = weight;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * 상위 k 개만 유지하는 min-heap, 루트가 가장 낮은 순위다.
+     */
+    private static class TopK {
+        private final long[] ids;
+        private final double[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            this.ids = new long[Math.max(capacity, 0)];
+            this.scores = new double[Math.max(capacity, 0)];
+        }
+
+        void offer(long id, double score) {
+            if (ids.length == 0) {
+                return;
+            }
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (lower(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * 높은 순위부터 꺼낸다. heap 은 비워진다.
+         */
+        List<Long> sorted() {
+            Long[] result = new Long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return Arrays.asList(result);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!lower(ids[i], scores[i], ids[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int lowest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (lower(ids[child], scores[child], ids[lowest], scores[lowest])) {
+                        lowest = child;
+                    }
+                }
+                if (lowest == i) {
+                    return;
+                }
+                swap(i, lowest);
+                i = lowest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        /**
+         * a 가 b 보다 순위가 낮은지, 점수가 같으면 id 가 작은(오래된) 쪽이 낮다.
+         */
+        private static boolean lower(long aId, double aScore, long bId, double bScore) {
+            return aScore < bScore || (aScore == bScore && aId < bId);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ola.utils;
+
+import java.util.List;
+
+/**
+ * 색인 검색 결과, 한 페이지의 게시글 id 목록과 조건에 맞는 전체 문서 수
+ */
+public class SearchResult {
+    static final SearchResult EMPTY = new SearchResult(List.of(), 0);
+
+    private final List<Long> ids;
+    private final int total;
+
+    public SearchResult(List<Long> ids, int total) {
+        this.ids = ids;
+        this.total = total;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * 검색 조건에 맞는 문서 수, 페이지 번호 목록을 만드는 데 쓴다.
+     * @return int
+     */
+    public int getTotal() {
+        return total;
+    }
+}
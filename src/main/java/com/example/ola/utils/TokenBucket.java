@@ -0,0 +1,47 @@
+package com.example.ola.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * lock-free 토큰 버킷 (GCRA)
+ * 남은 토큰 수 대신 "다음 토큰이 이론적으로 도착하는 시각" 하나만 AtomicLong 으로 관리하고 CAS 로 갱신한다.
+ */
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * Math.max(capacity, 1);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 토큰 하나를 가져온다.
+     * @param nowNanos
+     * @return 성공하면 0, 실패하면 다음 토큰까지 기다려야 하는 nanos
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 가득 찬 상태면 지워도 다음 요청이 새 버킷으로 같은 결과를 얻는다.
+     * @param nowNanos
+     * @return boolean
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrivalNanos.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ola.config;
+
+import com.example.ola.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setName("login");
+        login.setMethod("POST");
+        login.setPattern("/api/v1/users/login");
+        login.setCapacity(1);
+        login.setRefillPerSecond(0.1);
+        properties = new RateLimitProperties();
+        properties.setRoutes(List.of(login));
+        filter = new RateLimitFilter(new RateLimiter(properties, new SimpleMeterRegistry()), properties, new ObjectMapper());
+    }
+
+    @Test
+    void 제한을_넘으면_429_와_Retry_After() throws Exception {
+        // given
+        doFilter(request("POST", "/api/v1/users/login", "1.1.1.1"));
+        // when
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("POST", "/api/v1/users/login", "1.1.1.1"), response, chain);
+        // then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(response.getContentAsString()).contains("TOO_MANY_REQUESTS");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void IP_가_다르면_따로_제한() throws Exception {
+        doFilter(request("POST", "/api/v1/users/login", "1.1.1.1"));
+
+        assertThat(doFilter(request("POST", "/api/v1/users/login", "2.2.2.2")).getRequest()).isNotNull();
+    }
+
+    @Test
+    void 경로나_메서드가_다르면_제한하지_않음() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(doFilter(request("GET", "/api/v1/users/login", "1.1.1.1")).getRequest()).isNotNull();
+            assertThat(doFilter(request("POST", "/api/v1/users/join", "1.1.1.1")).getRequest()).isNotNull();
+        }
+    }
+
+    @Test
+    void 꺼져_있으면_제한하지_않음() throws Exception {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(doFilter(request("POST", "/api/v1/users/login", "1.1.1.1")).getRequest()).isNotNull();
+        }
+    }
+
+    private MockFilterChain doFilter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ola.config;
+
+import com.example.ola.dto.request.UserLoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로드밸런서 뒤에서는 모든 요청의 remoteAddr 가 프록시 IP 이므로, Tomcat 이 X-Forwarded-For 로 클라이언트 IP 를 복원해야 한다.
+ */
+@ActiveProfiles("dev")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RateLimitForwardedForTest {
+    private static final int LOGIN_CAPACITY = 10;
+
+    @Autowired TestRestTemplate restTemplate;
+
+    @Test
+    void 같은_프록시를_거쳐도_X_Forwarded_For_별로_따로_제한() throws Exception {
+        for (int i = 0; i < LOGIN_CAPACITY; i++) {
+            assertThat(login("203.0.113.1")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        assertThat(login("203.0.113.1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        assertThat(login("203.0.113.2")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private HttpStatus login(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add("X-Forwarded-For", clientIp);
+        return restTemplate.postForEntity("/api/v1/users/login",
+                new HttpEntity<>(new UserLoginRequest("forwarded-user", "password"), headers), String.class)
+                .getStatusCode();
+    }
+}
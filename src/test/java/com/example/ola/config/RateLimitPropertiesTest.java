@@ -0,0 +1,46 @@
+package com.example.ola.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPropertiesTest {
+
+    @Test
+    void 설정을_경로_순서대로_바인딩() throws Exception {
+        MapConfigurationPropertySource source = new MapConfigurationPropertySource(Map.of(
+                "rate-limit.max-buckets", "10",
+                "rate-limit.username.capacity", "3",
+                "rate-limit.username.refill-per-second", "0.5",
+                "rate-limit.routes[0].name", "login",
+                "rate-limit.routes[0].method", "POST",
+                "rate-limit.routes[0].pattern", "/api/v1/users/login",
+                "rate-limit.routes[0].capacity", "10",
+                "rate-limit.routes[0].refill-per-second", "0.2",
+                "rate-limit.routes[1].name", "join",
+                "rate-limit.routes[1].pattern", "/api/v1/users/join"));
+
+        RateLimitProperties properties = new Binder(source).bind("rate-limit", RateLimitProperties.class).get();
+
+        assertThat(properties.isEnabled()).isTrue();
+        assertThat(properties.getMaxBuckets()).isEqualTo(10);
+        assertThat(properties.getUsername().getCapacity()).isEqualTo(3);
+        assertThat(properties.getUsername().getRefillPerSecond()).isEqualTo(0.5);
+        assertThat(properties.getRoutes()).extracting(RateLimitProperties.Route::getName).containsExactly("login", "join");
+        assertThat(properties.getRoutes().get(0).getRefillPerSecond()).isEqualTo(0.2);
+        assertThat(properties.getRoutes().get(1).getMethod()).isNull();
+    }
+
+    @Test
+    void 설정이_없으면_기본값() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+
+        assertThat(properties.getMaxBuckets()).isEqualTo(100_000);
+        assertThat(properties.getUsername().getCapacity()).isEqualTo(5);
+        assertThat(properties.getRoutes()).isEmpty();
+    }
+}
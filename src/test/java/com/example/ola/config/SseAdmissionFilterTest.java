@@ -0,0 +1,77 @@
+package com.example.ola.config;
+
+import com.example.ola.service.SseAdmission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SseAdmissionFilterTest {
+    private SseAdmission sseAdmission;
+    private SseAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        sseAdmission = mock(SseAdmission.class);
+        filter = new SseAdmissionFilter(sseAdmission);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void 거절되면_retry_만_담은_200_스트림으로_응답() throws Exception {
+        // given
+        login();
+        when(sseAdmission.tryAdmit()).thenReturn(4_500L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/alarm/subscribe"), response, chain);
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("retry: 4500\n\n");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void 로그인하지_않은_알람_구독은_수락_몫을_쓰지_않음() throws Exception {
+        // given
+        MockFilterChain chain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/alarm/subscribe"), new MockHttpServletResponse(), chain);
+        // then
+        verifyNoInteractions(sseAdmission);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void 로그인하지_않은_채널_구독은_별도_bucket_으로_수락() throws Exception {
+        // given
+        when(sseAdmission.tryAdmitAnonymous()).thenReturn(0L);
+        MockFilterChain chain = new MockFilterChain();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v2/posts/team/1/subscribe"), new MockHttpServletResponse(), chain);
+        // then
+        verify(sseAdmission).tryAdmitAnonymous();
+        verify(sseAdmission, never()).tryAdmit();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private void login() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user1", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
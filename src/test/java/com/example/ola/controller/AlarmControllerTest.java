@@ -28,11 +28,16 @@ import javax.persistence.EntityManager;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles("dev")
@@ -54,6 +59,43 @@ class AlarmControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void 알림_조회시_cursor_전달() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/api/v1/alarms?cursor=30&size=10").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+        verify(alarmService).alarms(any(), eq(30L), eq(10));
+    }
+
+    @Test
+    void 읽지_않은_알림_수_조회() throws Exception {
+        // given
+        when(alarmService.unreadCount(any())).thenReturn(3L);
+        // when
+        // then
+        mockMvc.perform(get("/api/v1/alarms/unread-count").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(3));
+    }
+
+    @Test
+    void 알림_읽음_처리() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(post("/api/v1/alarms/read?upTo=30").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                ).andDo(print())
+                .andExpect(status().isOk());
+        verify(alarmService).readAlarms(any(), eq(30L));
+    }
+
     @Test
     void 알림_삭제() throws Exception {
         // given
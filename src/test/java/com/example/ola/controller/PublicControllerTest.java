@@ -6,6 +6,7 @@ import com.example.ola.dto.request.RecommendRequest;
 import com.example.ola.dto.response.MyPageResponse;
 import com.example.ola.fixture.Fixture;
 import com.example.ola.service.PostService;
+import com.example.ola.service.TeamChannelService;
 import com.example.ola.service.TeamPostService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -16,16 +17,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles("dev")
@@ -36,11 +40,12 @@ class PublicControllerTest {
     @Autowired private ObjectMapper objectMapper;
     @MockBean private PostService postService;
     @MockBean TeamPostService teamPostService;
+    @MockBean TeamChannelService teamChannelService;
 
     @Test
     void 일반_게시글_목록_조회() throws Exception {
         // given
-        when(postService.findAllPostsWithPaging(anyInt(), eq(""))).thenReturn(mock(MyPageResponse.class));
+        when(postService.findAllPostsWithPaging(anyInt(), eq(""), isNull())).thenReturn(mock(MyPageResponse.class));
         // when then
         mockMvc.perform(get("/api/v2/posts")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -48,11 +53,24 @@ class PublicControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void 일반_게시글_목록_커서로_조회() throws Exception {
+        // given
+        when(postService.findAllPostsWithPaging(1, "", 120L)).thenReturn(MyPageResponse.of(List.of(), List.of(0, 1, 2), 110L));
+        // when then
+        mockMvc.perform(get("/api/v2/posts?page=1&after=120")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.nextCursor").value(110));
+        verify(postService).findAllPostsWithPaging(1, "", 120L);
+    }
+
     @Test
     void 일반_게시글_목록_검색어로_조회() throws Exception {
         // given
         String keyword = "key";
-        when(postService.findAllPostsByKeyword(keyword)).thenReturn(mock(MyPageResponse.class));
+        when(postService.findAllPostsByKeyword(keyword, 0)).thenReturn(mock(MyPageResponse.class));
         // when then
         mockMvc.perform(get("/api/v2/posts?page=0&keyword="+keyword)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -74,7 +92,7 @@ class PublicControllerTest {
     @Test
     void 팀빌딩_게시글_목록_조회() throws Exception {
         // given
-        when(teamPostService.findAllTeamPostsWithPaging(0, "", "")).thenReturn(mock(MyPageResponse.class));
+        when(teamPostService.findAllTeamPostsWithPaging(0, "", "", null)).thenReturn(mock(MyPageResponse.class));
         // when then
         mockMvc.perform(get("/api/v2/posts/team")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -86,7 +104,7 @@ class PublicControllerTest {
     void 팀빌딩_게시글_목록_키워드로_조회() throws Exception {
         // given
         String keyword = "asd";
-        when(teamPostService.findAllTeamPostsByKeyword(eq(keyword))).thenReturn(mock(MyPageResponse.class));
+        when(teamPostService.findAllTeamPostsByKeyword(eq(keyword), eq(0))).thenReturn(mock(MyPageResponse.class));
         // when then
         mockMvc.perform(get("/api/v2/posts/team?page=0&keyword=" + keyword +"&place=")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -98,7 +116,7 @@ class PublicControllerTest {
     void 팀빌딩_게시글_목록_장소_조회() throws Exception {
         // given
         String keyword = "asd";
-        when(teamPostService.findAllTeamPostsByPlace(eq(keyword))).thenReturn(mock(MyPageResponse.class));
+        when(teamPostService.findAllTeamPostsByPlace(eq(keyword), eq(0))).thenReturn(mock(MyPageResponse.class));
         // when then
         mockMvc.perform(get("/api/v2/posts/team?page=0&keyword=" + keyword +"&place=장소")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -117,6 +135,17 @@ class PublicControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void 팀빌딩_게시글_채널_구독() throws Exception {
+        // given
+        when(teamChannelService.subscribe(1L)).thenReturn(new SseEmitter());
+        // when then
+        mockMvc.perform(get("/api/v2/posts/team/1/subscribe")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
     @Test
     void 팀_빌딩_게시물_대기열_조회() throws Exception {
         // given
@@ -1,6 +1,7 @@
 package com.example.ola.controller;
 
 import com.example.ola.domain.UserGender;
+import com.example.ola.dto.TokenDto;
 import com.example.ola.dto.UserDto;
 import com.example.ola.dto.request.HomeGymRequest;
 import com.example.ola.dto.request.UserLoginRequest;
@@ -11,6 +12,7 @@ import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
 import com.example.ola.service.AlarmService;
+import com.example.ola.service.SseAdmission;
 import com.example.ola.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.Cookie;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -32,6 +36,9 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles("dev")
@@ -43,6 +50,7 @@ class UserControllerTest {
     @Autowired ObjectMapper objectMapper;
     @MockBean UserService userService;
     @MockBean AlarmService alarmService;
+    @MockBean SseAdmission sseAdmission;
 
     @Test
     void 유저_정보_조회() throws Exception {
@@ -93,13 +101,37 @@ class UserControllerTest {
         String username = "username";
         String password = "password";
         // given
-        when(userService.login(username, password)).thenReturn("test token");
+        when(userService.login(username, password)).thenReturn(TokenDto.of("test-token", "refresh-token"));
         // when then
         mockMvc.perform(post("/api/v1/users/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsBytes(new UserLoginRequest(username, password))))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(cookie().httpOnly("refresh_token", true));
+    }
+
+    @Test
+    void 토큰_재발급() throws Exception {
+        // given
+        when(userService.refresh("refresh-token")).thenReturn(TokenDto.of("new-token", "new-refresh-token"));
+        // when then
+        mockMvc.perform(post("/api/v1/users/refresh")
+                        .cookie(new Cookie("refresh_token", "refresh-token")))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(cookie().value("refresh_token", "new-refresh-token"));
+    }
+
+    @Test
+    void 토큰_재발급시_refresh_토큰이_유효하지_않은_경우() throws Exception {
+        // given
+        when(userService.refresh(any())).thenThrow(new OlaApplicationException(ErrorCode.INVALID_TOKEN));
+        // when then
+        mockMvc.perform(post("/api/v1/users/refresh")
+                        .cookie(new Cookie("refresh_token", "revoked token")))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -130,6 +162,21 @@ class UserControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void 로그인시_해싱_대기열이_가득찬_경우() throws Exception {
+        String username = "username";
+        String password = "password";
+        // given
+        when(userService.login(username, password)).thenThrow(new OlaApplicationException(ErrorCode.SERVER_BUSY));
+        // when then
+        mockMvc.perform(post("/api/v1/users/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new UserLoginRequest(username, password))))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
     @Test
     void 유저_정보_수정() throws Exception {
         // given
@@ -189,24 +236,52 @@ class UserControllerTest {
     @Test
     void Sse_구독() throws Exception {
         // given
-        when(alarmService.connectAlarm(any()))
+        when(alarmService.connectAlarm(any(), any()))
+                .thenReturn(new SseEmitter());
+        // when then
+        mockMvc.perform(get("/api/v1/users/alarm/subscribe?token=temp").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void Sse_재연결시_Last_Event_ID_전달() throws Exception {
+        // given
+        when(alarmService.connectAlarm(any(), eq("3")))
                 .thenReturn(new SseEmitter());
         // when then
         mockMvc.perform(get("/api/v1/users/alarm/subscribe?token=temp").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .header("Last-Event-ID", "3")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk());
+        verify(alarmService).connectAlarm(any(), eq("3"));
     }
 
     @Test
     void Sse_구독에_실패한_경우() throws Exception {
         // given
         doThrow(new OlaApplicationException(ErrorCode.ALARM_CONNECT_ERROR))
-                .when(alarmService).connectAlarm(any());
+                .when(alarmService).connectAlarm(any(), any());
         // when then
         mockMvc.perform(get("/api/v1/users/alarm/subscribe?token=temp").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void Sse_구독이_수락되지_않은_경우() throws Exception {
+        // given
+        when(sseAdmission.tryAdmit()).thenReturn(5_000L);
+        // when then
+        mockMvc.perform(get("/api/v1/users/alarm/subscribe?token=temp").with(user(UserPrincipal.fromUser(Fixture.makeUserFixture("user1", "1q2w3e4r!!"))))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("retry: 5000\n\n"));
+        verify(alarmService, never()).connectAlarm(any(), any());
+    }
+}
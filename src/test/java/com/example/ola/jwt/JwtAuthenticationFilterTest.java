@@ -0,0 +1,139 @@
+package com.example.ola.jwt;
+
+import com.example.ola.dto.security.UserPrincipal;
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import com.example.ola.service.CustomUserDetailService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+    private static final String SECRET = "b2xhLWp3dHNlY3JldGtleXNldHRpbmdzLWl0Z29lc3Rvand0dG9rZW5wcm92aWRlci1pdHdvdWxkYmVsb25nZXItc29pc2F5bWVhbmluZ2xlc3N0aGluZ3M=";
+
+    private CustomUserDetailService userDetailService;
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userDetailService = mock(CustomUserDetailService.class);
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 1800L, 1209600L, true, 900L, userDetailService,
+                new UserPrincipalCache(10, 300, new SimpleMeterRegistry()), mock(RevokedTokenRegistry.class));
+        jwtTokenProvider.afterPropertiesSet();
+        filter = new JwtAuthenticationFilter(jwtTokenProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void 유효한_토큰은_DB_조회_없이_인증() throws Exception {
+        // given
+        String token = jwtTokenProvider.createToken(principal(), List.of("USER"));
+        MockFilterChain chain = new MockFilterChain();
+        // when
+        filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+        // then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(((UserPrincipal) authentication.getPrincipal()).getId()).isEqualTo(1L);
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userDetailService);
+    }
+
+    @Test
+    void 버전이_다른_principal_claims_는_DB_에서_조회() throws Exception {
+        // given
+        when(userDetailService.loadUserByUsername("user1")).thenReturn(principal());
+        // when
+        filter.doFilter(request(staleToken()), new MockHttpServletResponse(), new MockFilterChain());
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(userDetailService).loadUserByUsername("user1");
+    }
+
+    @Test
+    void 버전이_다른_토큰의_유저가_탈퇴했으면_인증하지_않음() throws Exception {
+        // given
+        when(userDetailService.loadUserByUsername(anyString())).thenThrow(new OlaApplicationException(ErrorCode.USER_NOT_FOUND));
+        MockFilterChain chain = new MockFilterChain();
+        // when
+        filter.doFilter(request(staleToken()), new MockHttpServletResponse(), chain);
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void refresh_토큰으로는_인증하지_않음() throws Exception {
+        // when
+        filter.doFilter(request(jwtTokenProvider.createRefreshToken("user1")), new MockHttpServletResponse(), new MockFilterChain());
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailService);
+    }
+
+    @Test
+    void 변조된_토큰으로는_인증하지_않음() throws Exception {
+        // given
+        String token = jwtTokenProvider.createToken(principal(), List.of("USER"));
+        // when
+        filter.doFilter(request(token.substring(0, token.length() - 2) + "xx"), new MockHttpServletResponse(), new MockFilterChain());
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailService);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    /**
+     * 이전 버전 형식으로 발급된 토큰
+     */
+    private static String staleToken() {
+        Claims claims = Jwts.claims().setSubject("user1");
+        PrincipalClaims.put(claims, principal());
+        claims.put("pcv", PrincipalClaims.VERSION - 1);
+        return Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static UserPrincipal principal() {
+        return UserPrincipal.builder()
+                .id(1L)
+                .username("user1")
+                .password("")
+                .nickname("nick")
+                .authorities(Set.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+    }
+}
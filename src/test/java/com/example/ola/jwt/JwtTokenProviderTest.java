@@ -0,0 +1,143 @@
+package com.example.ola.jwt;
+
+import com.example.ola.dto.HomeGymDto;
+import com.example.ola.dto.security.UserPrincipal;
+import com.example.ola.service.CustomUserDetailService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+    private static final String SECRET = "b2xhLWp3dHNlY3JldGtleXNldHRpbmdzLWl0Z29lc3Rvand0dG9rZW5wcm92aWRlci1pdHdvdWxkYmVsb25nZXItc29pc2F5bWVhbmluZ2xlc3N0aGluZ3M=";
+
+    private CustomUserDetailService userDetailService;
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userDetailService = mock(CustomUserDetailService.class);
+        revokedTokenRegistry = mock(RevokedTokenRegistry.class);
+    }
+
+    @Test
+    void 유효한_토큰은_파싱된_claims_를_담음() throws Exception {
+        JwtTokenProvider provider = provider(1800L, false);
+        String token = provider.createToken("user1", List.of("USER"));
+
+        TokenVerification verification = provider.verifyAccessToken(token);
+
+        assertThat(verification.isValid()).isTrue();
+        assertThat(verification.getFailure()).isNull();
+        assertThat(verification.getClaims().getSubject()).isEqualTo("user1");
+        assertThat(verification.getClaims().get("roles", List.class)).containsExactly("USER");
+    }
+
+    @Test
+    void 만료된_토큰은_EXPIRED() throws Exception {
+        JwtTokenProvider provider = provider(-60L, false);
+        String token = provider.createToken("user1", List.of("USER"));
+
+        TokenVerification verification = provider.verifyAccessToken(token);
+
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailure()).isEqualTo(TokenVerification.Failure.EXPIRED);
+        assertThat(verification.getClaims()).isNull();
+    }
+
+    @Test
+    void 변조된_토큰은_INVALID_SIGNATURE() throws Exception {
+        JwtTokenProvider provider = provider(1800L, false);
+        String token = provider.createToken("user1", List.of("USER"));
+        String[] parts = token.split("\\.");
+        String tampered = provider.createToken("admin", List.of("USER")).split("\\.")[1];
+
+        TokenVerification verification = provider.verifyAccessToken(parts[0] + "." + tampered + "." + parts[2]);
+
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailure()).isEqualTo(TokenVerification.Failure.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void refresh_토큰은_access_토큰으로_쓸_수_없음() throws Exception {
+        JwtTokenProvider provider = provider(1800L, false);
+
+        TokenVerification verification = provider.verifyAccessToken(provider.createRefreshToken("user1"));
+
+        assertThat(verification.getFailure()).isEqualTo(TokenVerification.Failure.UNSUPPORTED);
+    }
+
+    @Test
+    void 폐기된_refresh_토큰은_claims_와_함께_REVOKED() throws Exception {
+        JwtTokenProvider provider = provider(1800L, false);
+        String token = provider.createRefreshToken("user1", "family");
+        when(revokedTokenRegistry.isRevokedInStore(anyString(), eq("family"))).thenReturn(true);
+
+        TokenVerification verification = provider.verifyRefreshToken(token);
+
+        assertThat(verification.getFailure()).isEqualTo(TokenVerification.Failure.REVOKED);
+        assertThat(provider.getFamilyId(verification.getClaims())).isEqualTo("family");
+    }
+
+    @Test
+    void 검증된_claims_로_principal_을_만들고_DB_는_한_번만_조회() throws Exception {
+        JwtTokenProvider provider = provider(1800L, false);
+        when(userDetailService.loadUserByUsername("user1")).thenReturn(principal());
+        Claims claims = provider.verifyAccessToken(provider.createToken("user1", List.of("USER"))).getClaims();
+
+        Authentication first = provider.getAuthentication(claims);
+        Authentication second = provider.getAuthentication(claims);
+
+        assertThat(((UserPrincipal) first.getPrincipal()).getId()).isEqualTo(1L);
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        verify(userDetailService, times(1)).loadUserByUsername("user1");
+    }
+
+    @Test
+    void principal_claims_가_있으면_DB_를_조회하지_않음() throws Exception {
+        JwtTokenProvider provider = provider(1800L, true);
+        Claims claims = provider.verifyAccessToken(provider.createToken(principal(), List.of("USER"))).getClaims();
+
+        Authentication authentication = provider.getAuthentication(claims);
+
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("user1");
+        assertThat(principal.getNickname()).isEqualTo("nick");
+        assertThat(principal.getHomeGym().getPlaceName()).isEqualTo("gym");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailService);
+    }
+
+    private JwtTokenProvider provider(Long tokenValidityInSeconds, boolean statelessPrincipal) throws Exception {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, tokenValidityInSeconds, 1209600L,
+                statelessPrincipal, tokenValidityInSeconds, userDetailService,
+                new UserPrincipalCache(10, 300, new SimpleMeterRegistry()), revokedTokenRegistry);
+        provider.afterPropertiesSet();
+        return provider;
+    }
+
+    private static UserPrincipal principal() {
+        return UserPrincipal.builder()
+                .id(1L)
+                .username("user1")
+                .password("")
+                .nickname("nick")
+                .name("name")
+                .ageRange(20L)
+                .userGender("MALE")
+                .homeGym(new HomeGymDto(2L, "gym", "서울 강남구 테헤란로 152", "헬스장", 127.0, 37.5))
+                .authorities(Set.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ola.jwt;
+
+import com.example.ola.domain.RevokedToken;
+import com.example.ola.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RevokedTokenRegistryTest {
+    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        revokedTokenRegistry = new RevokedTokenRegistry(revokedTokenRepository, 1000, 0.01, 60_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void 동기화는_지난_시각보다_겹쳐_다시_읽음() throws Exception {
+        // given
+        when(revokedTokenRepository.findNotExpiredAfterId(anyLong(), any(), anyInt())).thenReturn(List.of());
+        revokedTokenRegistry.rebuild();
+        RevokedToken late = revokedToken(1L, "late");
+        when(revokedTokenRepository.findNotExpiredRegisteredSince(any(), eq(0L), any(), anyInt())).thenReturn(List.of(late));
+        when(revokedTokenRepository.existsByTokenId("late")).thenReturn(true);
+        // when
+        revokedTokenRegistry.sync();
+        revokedTokenRegistry.sync();
+        // then
+        verify(revokedTokenRepository, times(2)).findNotExpiredRegisteredSince(
+                argThat(since -> since.getTime() <= System.currentTimeMillis() - 60_000), eq(0L), any(), anyInt());
+        assertThat(revokedTokenRegistry.isRevoked("late")).isTrue();
+    }
+
+    @Test
+    void 필터에_없는_토큰은_DB를_조회하지_않음() throws Exception {
+        // when
+        boolean revoked = revokedTokenRegistry.isRevoked("unknown");
+        // then
+        assertThat(revoked).isFalse();
+        verify(revokedTokenRepository, never()).existsByTokenId(anyString());
+    }
+
+    @Test
+    void 동기화_전이라도_DB_에_있으면_폐기로_판단() throws Exception {
+        // given 다른 노드에서 폐기되어 filter 에는 아직 없다.
+        when(revokedTokenRepository.existsByTokenIdIn(List.of("token", "family"))).thenReturn(true);
+        // when, then
+        assertThat(revokedTokenRegistry.isRevoked("family")).isFalse();
+        assertThat(revokedTokenRegistry.isRevokedInStore("token", "family")).isTrue();
+        assertThat(revokedTokenRegistry.isRevokedInStore(null, null)).isFalse();
+    }
+
+    private static RevokedToken revokedToken(Long id, String tokenId) {
+        RevokedToken token = RevokedToken.of(tokenId, Timestamp.from(Instant.now().plusSeconds(60)));
+        ReflectionTestUtils.setField(token, "id", id);
+        return token;
+    }
+}
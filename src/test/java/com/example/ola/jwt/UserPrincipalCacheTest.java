@@ -0,0 +1,56 @@
+package com.example.ola.jwt;
+
+import com.example.ola.dto.security.UserPrincipal;
+import com.example.ola.event.UserUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserPrincipal> loader = username -> {
+        loads.incrementAndGet();
+        return UserPrincipal.builder().id(1L).username(username).build();
+    };
+
+    @Test
+    void 같은_유저는_한_번만_적재() throws Exception {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 300, meterRegistry);
+
+        UserPrincipal first = cache.get("user1", loader);
+        UserPrincipal second = cache.get("user1", loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "userPrincipal").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void TTL_이_지나면_다시_적재() throws Exception {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 1, meterRegistry);
+
+        cache.get("user1", loader);
+        Thread.sleep(1_100);
+        cache.get("user1", loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void 유저_정보가_수정되면_해당_유저만_다시_적재() throws Exception {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 300, meterRegistry);
+        cache.get("user1", loader);
+        cache.get("user2", loader);
+
+        cache.onUserUpdated(UserUpdatedEvent.of("user1"));
+        cache.get("user1", loader);
+        cache.get("user2", loader);
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+}
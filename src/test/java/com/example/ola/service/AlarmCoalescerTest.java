@@ -0,0 +1,84 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.Alarm;
+import com.example.ola.domain.AlarmType;
+import com.example.ola.domain.User;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.AlarmRequestedEvent;
+import com.example.ola.fixture.Fixture;
+import com.example.ola.repository.AlarmRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AlarmCoalescerTest {
+    private AlarmRepository alarmRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private AlarmCoalescer alarmCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        alarmRepository = mock(AlarmRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        alarmCoalescer = new AlarmCoalescer(alarmRepository, eventPublisher, mock(PlatformTransactionManager.class),
+                3_000L, 10_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void 같은_게시물_알람은_하나로_묶어서_저장() throws Exception {
+        // given
+        User receiver = spy(Fixture.makeUserFixture("user1", "1q2w3e4r!!"));
+        when(receiver.getId()).thenReturn(1L);
+        when(alarmRepository.saveAll(anyList())).thenReturn(List.of(10L, 11L));
+        // when
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 1L, "user2", AlarmType.COMMENT));
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 1L, "user3", AlarmType.COMMENT));
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 1L, "user2", AlarmType.COMMENT));
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 2L, "user2", AlarmType.COMMENT));
+        alarmCoalescer.flushAll();
+        // then
+        ArgumentCaptor<List<Alarm>> captor = ArgumentCaptor.forClass(List.class);
+        verify(alarmRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        Alarm merged = captor.getValue().stream()
+                .filter(alarm -> alarm.getArgs().getPostId() == 1L)
+                .findAny().orElseThrow();
+        assertThat(merged.getActorCount()).isEqualTo(2);
+        assertThat(merged.getArgs().getFromUser()).isEqualTo("user2");
+        verify(eventPublisher, times(2)).publishEvent(any(AlarmEvent.class));
+    }
+
+    @Test
+    void 종료시_window_와_관계없이_남은_알람을_저장() throws Exception {
+        // given
+        User receiver = spy(Fixture.makeUserFixture("user1", "1q2w3e4r!!"));
+        when(receiver.getId()).thenReturn(1L);
+        when(alarmRepository.saveAll(anyList())).thenReturn(List.of(10L));
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 1L, "user2", AlarmType.COMMENT));
+        // when
+        alarmCoalescer.shutdown();
+        // then
+        verify(alarmRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void window_가_지나지_않은_알람은_저장하지_않음() throws Exception {
+        // given
+        User receiver = spy(Fixture.makeUserFixture("user1", "1q2w3e4r!!"));
+        when(receiver.getId()).thenReturn(1L);
+        // when
+        alarmCoalescer.request(AlarmRequestedEvent.of(receiver, 1L, "user2", AlarmType.COMMENT));
+        alarmCoalescer.flush();
+        // then
+        verify(alarmRepository, never()).saveAll(anyList());
+    }
+}
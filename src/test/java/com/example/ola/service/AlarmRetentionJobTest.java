@@ -0,0 +1,69 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.AlarmRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AlarmRetentionJobTest {
+    private AlarmRepository alarmRepository;
+    private AlarmRetentionJob alarmRetentionJob;
+
+    @BeforeEach
+    void setUp() {
+        alarmRepository = mock(AlarmRepository.class);
+        alarmRetentionJob = new AlarmRetentionJob(alarmRepository, mock(PlatformTransactionManager.class),
+                true, 7L, 90L, 1000, 0L, 30L, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void 알람_정리시_id_범위를_나눠서_삭제() throws Exception {
+        // given
+        when(alarmRepository.findIdRange()).thenReturn(Optional.of(new long[]{1L, 2500L}));
+        when(alarmRepository.purgeInRange(anyLong(), anyLong(), any(), any())).thenReturn(10);
+        // when
+        long deleted = alarmRetentionJob.purge(Instant.now());
+        // then
+        assertThat(deleted).isEqualTo(30L);
+        verify(alarmRepository).purgeInRange(eq(0L), eq(1000L), any(), any());
+        verify(alarmRepository).purgeInRange(eq(1000L), eq(2000L), any(), any());
+        verify(alarmRepository).purgeInRange(eq(2000L), eq(2500L), any(), any());
+    }
+
+    @Test
+    void 시간을_넘겨_멈추면_다음_실행은_멈춘_곳부터_삭제() throws Exception {
+        // given
+        AlarmRetentionJob job = new AlarmRetentionJob(alarmRepository, mock(PlatformTransactionManager.class),
+                true, 7L, 90L, 1000, 0L, 0L, new SimpleMeterRegistry());
+        when(alarmRepository.findIdRange()).thenReturn(Optional.of(new long[]{1L, 2500L}));
+        when(alarmRepository.purgeInRange(anyLong(), anyLong(), any(), any())).thenReturn(10);
+        // when
+        job.purge(Instant.now());
+        job.purge(Instant.now());
+        job.purge(Instant.now());
+        job.purge(Instant.now());
+        // then
+        verify(alarmRepository, times(2)).purgeInRange(eq(0L), eq(1000L), any(), any());
+        verify(alarmRepository).purgeInRange(eq(1000L), eq(2000L), any(), any());
+        verify(alarmRepository).purgeInRange(eq(2000L), eq(2500L), any(), any());
+    }
+
+    @Test
+    void 알람이_없는_경우() throws Exception {
+        // given
+        when(alarmRepository.findIdRange()).thenReturn(Optional.empty());
+        // when
+        long deleted = alarmRetentionJob.purge(Instant.now());
+        // then
+        assertThat(deleted).isEqualTo(0L);
+        verify(alarmRepository, never()).purgeInRange(anyLong(), anyLong(), any(), any());
+    }
+}
@@ -2,10 +2,13 @@ package com.example.ola.service;
 
 import com.example.ola.domain.*;
 import com.example.ola.dto.AlarmDto;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.UnreadCountChangedEvent;
 import com.example.ola.exception.ErrorCode;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
 import com.example.ola.repository.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,6 +19,7 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.transaction.Transactional;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -30,9 +34,15 @@ import static org.mockito.Mockito.*;
 @SpringBootTest
 class AlarmServiceTest {
     @Autowired AlarmService alarmService;
+    @Autowired UnreadAlarmCounter unreadAlarmCounter;
     @MockBean AlarmRepository alarmRepository;
     @MockBean EmitterRepository emitterRepository;
 
+    @BeforeEach
+    void setUp() {
+        when(alarmRepository.countUnreadWithMaxId(anyLong())).thenReturn(new long[]{0L, 0L});
+    }
+
     @Test
     void 알람_연결() throws Exception {
         // given
@@ -40,7 +50,7 @@ class AlarmServiceTest {
         // when
         when(emitterRepository.save(anyLong())).thenReturn(emitter);
         // then
-        SseEmitter founded = alarmService.connectAlarm(1L);
+        SseEmitter founded = alarmService.connectAlarm(1L, null);
         assertThat(emitter).isEqualTo(founded);
     }
 
@@ -50,12 +60,39 @@ class AlarmServiceTest {
         SseEmitter emitter = mock(SseEmitter.class);
         when(emitterRepository.save(anyLong())).thenReturn(emitter);
         // when
-        doThrow(OlaApplicationException.class)
+        doThrow(IOException.class)
                 .when(emitter)
                 .send(any());
+        alarmService.connectAlarm(1L, null);
         // then
-        assertThatThrownBy(() -> alarmService.connectAlarm(1L))
-                .isInstanceOf(OlaApplicationException.class);
+        verify(emitterRepository, timeout(1000)).delete(1L, emitter);
+    }
+
+    @Test
+    void 알람_재연결시_버퍼에서_놓친_알람_전송() throws Exception {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        alarmService.send(alarmDto(10L), 100L);
+        alarmService.send(alarmDto(11L), 100L);
+        // when
+        when(emitterRepository.save(100L)).thenReturn(emitter);
+        alarmService.connectAlarm(100L, "10");
+        // then
+        verify(emitter, timeout(1000).times(3)).send(any(SseEmitter.SseEventBuilder.class)); // open + unread + 11
+        verify(alarmRepository, never()).findByUserIdAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void 알람_재연결시_버퍼에_없으면_DB에서_조회() throws Exception {
+        // given
+        SseEmitter emitter = mock(SseEmitter.class);
+        List<Alarm> missed = List.of(savedAlarm(4L), savedAlarm(5L));
+        // when
+        when(emitterRepository.save(200L)).thenReturn(emitter);
+        when(alarmRepository.findByUserIdAfter(eq(200L), eq(3L), anyInt())).thenReturn(missed);
+        alarmService.connectAlarm(200L, "3");
+        // then
+        verify(emitter, timeout(1000).times(4)).send(any(SseEmitter.SseEventBuilder.class));
     }
 
     @Test
@@ -63,25 +100,38 @@ class AlarmServiceTest {
         // given
         SseEmitter emitter = mock(SseEmitter.class);
         // when
-        when(emitterRepository.get(1L)).thenReturn(Optional.of(emitter));
+        when(emitterRepository.get(1L)).thenReturn(List.of(emitter));
         // then
-        alarmService.send(anyLong(), 1L);
-        verify(emitter).send(any());
+        alarmService.send(alarmDto(1L), 1L);
+        verify(emitter, timeout(1000).times(2)).send(any()); // alarm + unread
         verify(emitterRepository).get(anyLong());
     }
 
+    @Test
+    void 알람_전송시_여러_연결이_있는_경우() throws Exception {
+        // given
+        SseEmitter emitter1 = mock(SseEmitter.class);
+        SseEmitter emitter2 = mock(SseEmitter.class);
+        // when
+        when(emitterRepository.get(1L)).thenReturn(List.of(emitter1, emitter2));
+        // then
+        alarmService.send(alarmDto(1L), 1L);
+        verify(emitter1, timeout(1000).times(2)).send(any());
+        verify(emitter2, timeout(1000).times(2)).send(any());
+    }
+
     @Test
     void 알림_전송_실패한_경우() throws Exception {
         // given
         SseEmitter emitter = mock(SseEmitter.class);
         // when
-        when(emitterRepository.get(anyLong())).thenReturn(Optional.of(emitter));
-        doThrow(OlaApplicationException.class)
+        when(emitterRepository.get(anyLong())).thenReturn(List.of(emitter));
+        doThrow(IOException.class)
                 .when(emitter)
                 .send(any());
         // then
-        assertThatThrownBy(() -> alarmService.send(1L, anyLong()))
-                .isInstanceOf(OlaApplicationException.class);
+        alarmService.send(alarmDto(1L), 1L);
+        verify(emitterRepository, timeout(1000)).delete(1L, emitter);
     }
 
     @Test
@@ -96,22 +146,65 @@ class AlarmServiceTest {
             alarms.add(alarm);
         }
         // when
-        when(alarmRepository.findByUsername(any())).thenReturn(Optional.of(alarms));
+        when(alarmRepository.findByUserId(anyLong(), anyLong(), anyInt())).thenReturn(alarms);
         // then
-        List<AlarmDto> alarmDtos = alarmService.alarms("user1");
+        List<AlarmDto> alarmDtos = alarmService.alarms(1L, null, 10);
         assertThat(alarmDtos.size()).isEqualTo(10);
+        verify(alarmRepository).findByUserId(1L, Long.MAX_VALUE, 10);
     }
 
     @Test
     void 알람_조회시_알람이_없는_경우() throws Exception {
         // given
         // when
-        when(alarmRepository.findByUsername(any())).thenReturn(Optional.empty());
+        when(alarmRepository.findByUserId(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
         // then
-        List<AlarmDto> user1 = alarmService.alarms("user1");
+        List<AlarmDto> user1 = alarmService.alarms(1L, 30L, 20);
         assertThat(user1.size()).isEqualTo(0);
     }
 
+    @Test
+    void 알람_조회시_페이지_크기_제한() throws Exception {
+        // when
+        alarmService.alarms(1L, 30L, 10_000);
+        // then
+        verify(alarmRepository).findByUserId(1L, 30L, 100);
+    }
+
+    @Test
+    void 알람_읽음_처리() throws Exception {
+        // when
+        alarmService.readAlarms(1L, 30L);
+        // then
+        verify(alarmRepository).markReadUpTo(1L, 30L);
+    }
+
+    @Test
+    void 읽지_않은_알람_수_증감() throws Exception {
+        // given
+        when(alarmRepository.countUnreadWithMaxId(300L)).thenReturn(new long[]{5L, 11L});
+        assertThat(alarmService.unreadCount(300L)).isEqualTo(5L);
+        // when
+        unreadAlarmCounter.added(300L, 11L); // 적재할 때 이미 센 알람
+        unreadAlarmCounter.added(300L, 12L);
+        alarmService.onUnreadCountChanged(UnreadCountChangedEvent.of(300L, -4));
+        // then
+        assertThat(alarmService.unreadCount(300L)).isEqualTo(2L);
+        verify(alarmRepository, times(1)).countUnreadWithMaxId(300L);
+    }
+
+    @Test
+    void 다른_노드의_알람을_받으면_읽지_않은_알람_수를_다시_셈() throws Exception {
+        // given
+        when(alarmRepository.countUnreadWithMaxId(400L)).thenReturn(new long[]{1L, 20L}, new long[]{2L, 21L});
+        assertThat(alarmService.unreadCount(400L)).isEqualTo(1L);
+        // when
+        alarmService.send(AlarmEvent.remote(alarmDto(21L), 400L));
+        // then
+        assertThat(alarmService.unreadCount(400L)).isEqualTo(2L);
+        verify(alarmRepository, times(2)).countUnreadWithMaxId(400L);
+    }
+
     @Test
     void 알람_삭제() throws Exception {
         // given
@@ -135,4 +228,14 @@ class AlarmServiceTest {
         assertThatThrownBy(() -> alarmService.deleteAlarm(1L))
                 .isInstanceOf(OlaApplicationException.class);
     }
-}
\ No newline at end of file
+
+    private Alarm savedAlarm(Long alarmId) {
+        Alarm alarm = spy(Fixture.makeAlarmFixture("user1", "user2", 1L));
+        when(alarm.getId()).thenReturn(alarmId);
+        return alarm;
+    }
+
+    private AlarmDto alarmDto(Long alarmId) {
+        return AlarmDto.of(alarmId, "user1", "user2", 1L, AlarmType.COMMENT);
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.ola.service;
 
 import com.example.ola.domain.Alarm;
+import com.example.ola.domain.AlarmType;
 import com.example.ola.domain.Comment;
 import com.example.ola.domain.Post;
 import com.example.ola.domain.User;
 import com.example.ola.dto.CommentDto;
 import com.example.ola.dto.request.PostType;
+import com.example.ola.event.AlarmRequestedEvent;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
 import com.example.ola.repository.AlarmRepository;
@@ -20,6 +22,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import javax.transaction.Transactional;
 
@@ -35,6 +39,7 @@ import static org.mockito.Mockito.*;
 
 @ActiveProfiles("dev")
 @Transactional
+@RecordApplicationEvents
 @SpringBootTest
 class CommentServiceTest {
     @Autowired
@@ -49,6 +54,8 @@ class CommentServiceTest {
     CommentRepository commentRepository;
     @MockBean
     AlarmService alarmService;
+    @Autowired
+    ApplicationEvents events;
 
 
     @Test
@@ -87,8 +94,10 @@ class CommentServiceTest {
         commentService.writeComment(post.getId(), "name", "content", PostType.POST);
         commentService.writeComment(post.getId(), 1L, "name", "content", PostType.POST);
         // then
-        verify(alarmRepository, times(2)).save(any());
-        verify(alarmService, times(2)).send(eq(alarm.getId()), eq(post.getUser().getId()));
+        verify(alarmRepository, never()).save(any()); // 커밋 후 AlarmCoalescer 가 묶어서 저장한다.
+        assertThat(events.stream(AlarmRequestedEvent.class)
+                .filter(e -> e.getReceiver() == post.getUser() && e.getAlarmType() == AlarmType.COMMENT)
+                .count()).isEqualTo(2);
     }
 
     @Test
@@ -106,7 +115,7 @@ class CommentServiceTest {
         commentService.writeComment(post.getId(), 1L, "user1", "content", PostType.POST);
         // then
         verify(alarmRepository, never()).save(any());
-        verify(alarmService, never()).send(eq(alarm.getId()), eq(post.getUser().getId()));
+        assertThat(events.stream(AlarmRequestedEvent.class).count()).isEqualTo(0);
     }
 
     @Test
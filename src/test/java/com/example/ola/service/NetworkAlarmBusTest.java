@@ -0,0 +1,126 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.AlarmType;
+import com.example.ola.domain.TeamBuildingStatus;
+import com.example.ola.dto.AlarmDto;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.example.ola.repository.RecentAlarmRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NetworkAlarmBusTest {
+    private LoopbackAlarmBusTransport transport;
+    private AlarmSender senderA;
+    private AlarmSender senderB;
+    private RecentAlarmRepository recentAlarmsA;
+    private RecentAlarmRepository recentAlarmsB;
+    private NetworkAlarmBus nodeA;
+    private NetworkAlarmBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        transport = spy(new LoopbackAlarmBusTransport());
+        senderA = mock(AlarmSender.class);
+        senderB = mock(AlarmSender.class);
+        recentAlarmsA = mock(RecentAlarmRepository.class);
+        recentAlarmsB = mock(RecentAlarmRepository.class);
+        nodeA = newNode(senderA, recentAlarmsA, 1);
+        nodeB = newNode(senderB, recentAlarmsB, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    void 알람_발행시_다른_노드에도_전달() throws Exception {
+        // when
+        nodeA.publish(AlarmEvent.of(alarmDto(1L), 10L));
+        nodeA.flush();
+        // then
+        verify(senderA, times(1)).deliverAll(argThat(events -> events.size() == 1 && events.get(0).getAlarmId() == 1L));
+        verify(senderB, times(1)).deliverAll(argThat(events -> events.size() == 1
+                && events.get(0).getUserId() == 10L
+                && events.get(0).isRemote()));
+    }
+
+    @Test
+    void 알람_발행시_batch_로_묶어서_전송() throws Exception {
+        // when
+        for (long i = 1; i <= 3; i++) {
+            nodeB.publish(AlarmEvent.of(alarmDto(i), 10L));
+        }
+        nodeB.flush();
+        // then
+        verify(transport, times(1)).publish(anyString());
+        verify(senderA, times(1)).deliverAll(argThat(events -> events.size() == 3));
+    }
+
+    @Test
+    void 팀_알람은_수신자_전체를_한_번에_발행() throws Exception {
+        // when
+        nodeB.publishAll(List.of(AlarmEvent.of(alarmDto(1L), 10L), AlarmEvent.of(alarmDto(2L), 20L), AlarmEvent.of(alarmDto(3L), 30L)));
+        nodeB.flush();
+        // then
+        verify(senderB, times(1)).deliverAll(argThat(events -> events.size() == 3));
+        verify(senderA, times(1)).deliverAll(argThat(events -> events.size() == 3));
+        verify(recentAlarmsA, never()).invalidateAll();
+    }
+
+    @Test
+    void 채널_이벤트는_게시글별_마지막_상태만_다른_노드에_전달() throws Exception {
+        // when
+        nodeA.publish(TeamMembersChangedEvent.of(1L, 2, 0, 4L, TeamBuildingStatus.READY));
+        nodeA.publish(TeamMembersChangedEvent.of(1L, 3, 0, 4L, TeamBuildingStatus.READY));
+        nodeA.flush();
+        // then
+        verify(senderA, times(2)).deliver(any(TeamMembersChangedEvent.class));
+        verify(transport, times(1)).publish(anyString());
+        verify(senderB, times(1)).deliver(argThat((TeamMembersChangedEvent e) -> e.getPostId() == 1L && e.getMemberCount() == 3));
+        verify(senderB, never()).deliverAll(any());
+    }
+
+    @Test
+    void 이어진_sequence_는_재연결_버퍼를_유지() throws Exception {
+        // when
+        nodeA.publish(AlarmEvent.of(alarmDto(1L), 10L));
+        nodeA.flush();
+        nodeA.publish(AlarmEvent.of(alarmDto(2L), 10L));
+        nodeA.flush();
+        // then
+        verify(senderB, times(2)).deliverAll(any());
+        verify(recentAlarmsB, never()).invalidateAll();
+    }
+
+    @Test
+    void 보내는_쪽_큐가_넘쳐_빠진_알람이_있으면_재연결_버퍼를_비움() throws Exception {
+        // when
+        nodeA.publish(AlarmEvent.of(alarmDto(1L), 10L));
+        nodeA.publish(AlarmEvent.of(alarmDto(2L), 20L)); // 큐가 가득 차 버려진다.
+        nodeA.flush();
+        nodeA.publish(AlarmEvent.of(alarmDto(3L), 10L));
+        nodeA.flush();
+        // then
+        verify(senderB, never()).deliverAll(argThat(events -> events.get(0).getAlarmId() == 2L));
+        verify(recentAlarmsB, times(1)).invalidateAll();
+    }
+
+    private AlarmDto alarmDto(Long alarmId) {
+        return AlarmDto.of(alarmId, "user1", "user2", 1L, AlarmType.JOIN);
+    }
+
+    private NetworkAlarmBus newNode(AlarmSender sender, RecentAlarmRepository recentAlarmRepository, int queueCapacity) {
+        return new NetworkAlarmBus(transport, sender, recentAlarmRepository, new ObjectMapper(), 100, queueCapacity, 60_000L, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ola.service;
+
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void 풀과_대기열이_가득_차면_기다리지_않고_SERVER_BUSY() throws Exception {
+        // given
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, 3_000, meterRegistry);
+        blockMatches();
+        callers.submit(() -> passwordHasher.matches("password", "encoded")); // 풀 스레드 점유
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> passwordHasher.matches("password", "encoded")); // 대기열 점유
+        awaitQueued();
+        // when, then
+        long begin = System.nanoTime();
+        assertThatThrownBy(() -> passwordHasher.matches("password", "encoded"))
+                .isInstanceOf(OlaApplicationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.SERVER_BUSY);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isLessThan(1_000);
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void 제한_시간_안에_해싱하지_못하면_SERVER_BUSY() throws Exception {
+        // given
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, 100, meterRegistry);
+        blockMatches();
+        // when, then
+        assertThatThrownBy(() -> passwordHasher.matches("password", "encoded"))
+                .isInstanceOf(OlaApplicationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.SERVER_BUSY);
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void 여유가_있으면_인코더_결과를_반환() throws Exception {
+        // given
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, 3_000, meterRegistry);
+        when(passwordEncoder.matches("password", "encoded")).thenReturn(true);
+        // when, then
+        assertThat(passwordHasher.matches("password", "encoded")).isTrue();
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isZero();
+        passwordHasher.shutdown();
+    }
+
+    private void blockMatches() {
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHash").gauge().value() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
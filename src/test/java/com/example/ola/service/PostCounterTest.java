@@ -0,0 +1,76 @@
+package com.example.ola.service;
+
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.repository.PostRepository;
+import com.example.ola.repository.TeamPostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PostCounterTest {
+    private PostRepository postRepository;
+    private TeamPostRepository teamPostRepository;
+    private PostCounter postCounter;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        teamPostRepository = mock(TeamPostRepository.class);
+        postCounter = new PostCounter(postRepository, teamPostRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void 처음_조회할_때만_DB_에서_셈() throws Exception {
+        // given
+        when(postRepository.getPostCount(PostCounter.POST)).thenReturn(42L);
+        when(teamPostRepository.getPostCount(PostCounter.TEAM_POST)).thenReturn(7L);
+        // when
+        postCounter.get(PostCounter.POST);
+        postCounter.get(PostCounter.TEAM_POST);
+        // then
+        assertThat(postCounter.get(PostCounter.POST)).isEqualTo(42L);
+        assertThat(postCounter.get(PostCounter.TEAM_POST)).isEqualTo(7L);
+        verify(postRepository, times(1)).getPostCount(PostCounter.POST);
+        verify(teamPostRepository, times(1)).getPostCount(PostCounter.TEAM_POST);
+    }
+
+    @Test
+    void 작성_삭제가_커밋되면_증감() throws Exception {
+        // given
+        when(postRepository.getPostCount(PostCounter.POST)).thenReturn(10L);
+        postCounter.get(PostCounter.POST);
+        // when
+        postCounter.onPostChanged(PostChangedEvent.written(1L, PostCounter.POST, "title", "content"));
+        postCounter.onPostChanged(PostChangedEvent.written(1L, PostCounter.POST, "title", "content"));
+        postCounter.onPostChanged(PostChangedEvent.deleted(1L, PostCounter.POST));
+        // then
+        assertThat(postCounter.get(PostCounter.POST)).isEqualTo(11L);
+    }
+
+    @Test
+    void 적재되지_않은_dtype_은_증감하지_않음() throws Exception {
+        // given
+        when(teamPostRepository.getPostCount(PostCounter.TEAM_POST)).thenReturn(3L);
+        // when
+        postCounter.onPostChanged(PostChangedEvent.written(1L, PostCounter.TEAM_POST, "title", "content"));
+        // then
+        assertThat(postCounter.get(PostCounter.TEAM_POST)).isEqualTo(3L);
+    }
+
+    @Test
+    void 주기적으로_DB_와_맞춤() throws Exception {
+        // given
+        when(postRepository.getPostCount(PostCounter.POST)).thenReturn(10L, 15L);
+        postCounter.get(PostCounter.POST);
+        postCounter.onPostChanged(PostChangedEvent.written(1L, PostCounter.POST, "title", "content"));
+        // when
+        postCounter.reconcile();
+        // then
+        assertThat(postCounter.get(PostCounter.POST)).isEqualTo(15L);
+        verify(teamPostRepository, never()).getPostCount(anyString());
+    }
+}
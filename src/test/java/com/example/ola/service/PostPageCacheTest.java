@@ -0,0 +1,80 @@
+package com.example.ola.service;
+
+import com.example.ola.dto.response.MyPageResponse;
+import com.example.ola.event.PostChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostPageCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PostPageCache postPageCache = new PostPageCache(2, 60, meterRegistry);
+
+    @Test
+    void 동시에_조회해도_한_번만_적재() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MyPageResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> postPageCache.get(PostCounter.POST, 0, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return MyPageResponse.of(List.of(), List.of());
+                })));
+            }
+            assertThat(loading.await(1, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            MyPageResponse first = results.get(0).get(1, TimeUnit.SECONDS);
+            for (Future<MyPageResponse> result : results) {
+                assertThat(result.get(1, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 변경된_dtype_의_페이지만_비움() throws Exception {
+        MyPageResponse post = postPageCache.get(PostCounter.POST, 0, () -> MyPageResponse.of(List.of(), List.of()));
+        MyPageResponse teamPost = postPageCache.get(PostCounter.TEAM_POST, 1, () -> MyPageResponse.of(List.of(), List.of()));
+
+        postPageCache.onPostChanged(PostChangedEvent.deleted(1L, PostCounter.POST));
+
+        assertThat(postPageCache.get(PostCounter.POST, 0, () -> MyPageResponse.of(List.of(), List.of()))).isNotSameAs(post);
+        assertThat(postPageCache.get(PostCounter.TEAM_POST, 1, () -> MyPageResponse.of(List.of(), List.of()))).isSameAs(teamPost);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "postPage").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 뒤쪽_페이지는_캐시하지_않음() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        postPageCache.get(PostCounter.POST, 2, () -> MyPageResponse.of(List.of(loads.incrementAndGet()), List.of()));
+        postPageCache.get(PostCounter.POST, 2, () -> MyPageResponse.of(List.of(loads.incrementAndGet()), List.of()));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
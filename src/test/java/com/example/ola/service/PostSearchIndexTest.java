@@ -0,0 +1,87 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.Post;
+import com.example.ola.dto.PostIndexDto;
+import com.example.ola.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostSearchIndexTest {
+    private PostRepository postRepository;
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        postSearchIndex = new PostSearchIndex(postRepository, mock(PlatformTransactionManager.class), true, 60_000L, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        postSearchIndex.shutdown();
+    }
+
+    @Test
+    void 다른_노드의_변경을_주기적으로_반영() throws Exception {
+        // given
+        List<Post> posts = List.of(post(1L, "헬스장 추천"), post(2L, "헬스장 후기"));
+        when(postRepository.findAllAfterId(eq(0L), anyInt())).thenReturn(posts);
+        postSearchIndex.rebuild();
+        // when
+        when(postRepository.findChangedSince(any(), eq(0L), anyInt())).thenReturn(List.of(
+                PostIndexDto.of(1L, PostCounter.POST, "수영장 추천", "", null, false),
+                PostIndexDto.of(2L, PostCounter.POST, "헬스장 후기", "", null, true),
+                PostIndexDto.of(3L, PostCounter.POST, "헬스장 모집", "", null, false)));
+        postSearchIndex.sync();
+        // then
+        assertThat(postSearchIndex.search(PostCounter.POST, "헬스장", 0, 10).get().getIds()).containsExactly(3L);
+        assertThat(postSearchIndex.search(PostCounter.POST, "수영장", 0, 10).get().getIds()).containsExactly(1L);
+        verify(postRepository).findChangedSince(any(), eq(3L), anyInt());
+    }
+
+    @Test
+    void 색인_실패시_준비되지_않은_채로_남고_다음_주기에_다시_만듦() throws Exception {
+        // given
+        List<Post> posts = List.of(post(1L, "헬스장 추천"));
+        when(postRepository.findAllAfterId(eq(0L), anyInt()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(posts);
+        // when
+        postSearchIndex.rebuild();
+        // then
+        assertThat(postSearchIndex.search(PostCounter.POST, "헬스장", 0, 10)).isEmpty();
+        postSearchIndex.sync();
+        verify(postRepository, timeout(1000).times(2)).findAllAfterId(eq(0L), anyInt());
+        verify(postRepository, never()).findChangedSince(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void 다른_노드의_팀_게시글_장소_변경을_반영() throws Exception {
+        // given
+        postSearchIndex.rebuild();
+        // when
+        when(postRepository.findChangedSince(any(), eq(0L), anyInt())).thenReturn(List.of(
+                PostIndexDto.of(4L, PostCounter.TEAM_POST, "팀원 모집", "", "서울 강남구 테헤란로 152", false),
+                PostIndexDto.of(5L, PostCounter.TEAM_POST, "팀원 모집", "", "서울 강남구 논현로 508", true)));
+        postSearchIndex.sync();
+        // then
+        assertThat(postSearchIndex.searchPlace("강남구", 0, 10).get().getIds()).containsExactly(4L);
+    }
+
+    private Post post(Long id, String title) {
+        Post post = mock(Post.class);
+        when(post.getId()).thenReturn(id);
+        when(post.getTitle()).thenReturn(title);
+        when(post.getContent()).thenReturn("");
+        return post;
+    }
+}
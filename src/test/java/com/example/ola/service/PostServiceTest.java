@@ -6,13 +6,18 @@ import com.example.ola.dto.request.PostUpdateRequest;
 import com.example.ola.dto.request.PostWriteRequest;
 import com.example.ola.dto.response.MyPageResponse;
 import com.example.ola.dto.response.PostResponse;
+import com.example.ola.event.PostChangedEvent;
+import com.example.ola.event.UnreadCountChangedEvent;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
+import com.example.ola.repository.AlarmRepository;
 import com.example.ola.repository.PostRepository;
 import com.example.ola.repository.UserRepository;
 import com.example.ola.utils.Crawler;
 import com.example.ola.utils.Paging;
+import com.example.ola.utils.SearchResult;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -20,11 +25,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,10 +42,15 @@ import static org.mockito.Mockito.*;
 @ActiveProfiles("dev")
 @Transactional
 @SpringBootTest
+@RecordApplicationEvents
 class PostServiceTest {
     @Autowired PostService postService;
     @MockBean PostRepository postRepository;
     @MockBean UserRepository userRepository;
+    @MockBean PostSearchIndex postSearchIndex;
+    @MockBean AlarmRepository alarmRepository;
+    @Autowired ApplicationEvents applicationEvents;
+    @Autowired PostPageCache postPageCache;
     private static MockedStatic<Paging> paging;
 
     @BeforeAll
@@ -50,6 +63,11 @@ class PostServiceTest {
         paging.close();
     }
 
+    @AfterEach
+    void tearDown() {
+        postPageCache.invalidateAll(); // 테스트마다 repository mock 이 달라 캐시된 페이지를 남기지 않는다.
+    }
+
     @Test
     void 일반게시물_작성() throws Exception {
         // given
@@ -105,7 +123,7 @@ class PostServiceTest {
         when(Paging.getPageList(anyInt(), anyInt(), anyInt())).thenReturn(List.of(1, 2));
 
         // when
-        MyPageResponse allPostsWithPaging = postService.findAllPostsWithPaging(0, "");
+        MyPageResponse allPostsWithPaging = postService.findAllPostsWithPaging(0, "", null);
         List<PostResponse> contents = (List<PostResponse>) allPostsWithPaging.getContents();
         List<Integer> pageList = allPostsWithPaging.getPageList();
         // then
@@ -113,6 +131,47 @@ class PostServiceTest {
         assertThat(pageList.size()).isEqualTo(2);
     }
 
+    @Test
+    void 일반게시물_커서_조회() throws Exception {
+        // given
+        List<Post> temp = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Post post = spy(Fixture.makePostFixture("user" + i, "title" + i));
+            doReturn(119L - i).when(post).getId();
+            temp.add(post);
+        }
+        when(postRepository.findAllPostsAfter(120L)).thenReturn(Optional.of(temp));
+        when(postRepository.getPostCount(eq("post"))).thenReturn(1L);
+        when(Paging.getPageList(anyInt(), anyInt(), anyInt())).thenReturn(List.of(0, 1, 2));
+
+        // when
+        MyPageResponse allPostsWithPaging = postService.findAllPostsWithPaging(1, "", 120L);
+        // then
+        verify(postRepository, never()).findAllPostsWithPaging(anyInt());
+        assertThat(((List<PostResponse>) allPostsWithPaging.getContents()).size()).isEqualTo(10);
+        assertThat(allPostsWithPaging.getNextCursor()).isEqualTo(110L);
+    }
+
+    @Test
+    void 첫_페이지는_캐시에서_조회하고_변경되면_다시_조회() throws Exception {
+        // given
+        List<Post> temp = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            temp.add(Fixture.makePostFixture("user" + i, "title" + i));
+        }
+        when(postRepository.findAllPostsWithPaging(0)).thenReturn(Optional.of(temp));
+        when(postRepository.getPostCount(eq("post"))).thenReturn(1L);
+
+        // when
+        MyPageResponse first = postService.findAllPostsWithPaging(0, "", null);
+        MyPageResponse second = postService.findAllPostsWithPaging(0, "", null);
+        postPageCache.onPostChanged(PostChangedEvent.deleted(1L, PostCounter.POST));
+        postService.findAllPostsWithPaging(0, "", null);
+        // then
+        assertThat(second).isSameAs(first);
+        verify(postRepository, times(2)).findAllPostsWithPaging(0);
+    }
+
     @Test
     void 제목_검색_게시물_페이징_조회() throws Exception {
         // given
@@ -125,7 +184,7 @@ class PostServiceTest {
         when(postRepository.getPostCount(eq("post"))).thenReturn(1L);
 
         // when
-        MyPageResponse allPostsWithPaging = postService.findAllPostsWithPaging(0, "title");
+        MyPageResponse allPostsWithPaging = postService.findAllPostsWithPaging(0, "title", null);
         List<PostResponse> contents = (List<PostResponse>) allPostsWithPaging.getContents();
         List<Integer> pageList = allPostsWithPaging.getPageList();
         // then
@@ -133,6 +192,29 @@ class PostServiceTest {
         assertThat(pageList.size()).isEqualTo(0);
     }
 
+    @Test
+    void 검색_색인이_준비되면_관련도순으로_조회() throws Exception {
+        // given
+        List<Post> temp = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Post post = spy(Fixture.makePostFixture("user" + id, "title" + id));
+            doReturn(id).when(post).getId();
+            temp.add(post);
+        }
+        when(postSearchIndex.search(eq("post"), eq("title"), eq(10), eq(10)))
+                .thenReturn(Optional.of(new SearchResult(List.of(3L, 1L, 2L), 13)));
+        when(postRepository.findAllPostsByIds(List.of(3L, 1L, 2L))).thenReturn(temp);
+        when(Paging.getPageList(13, 10, 1)).thenReturn(List.of(0, 1));
+
+        // when
+        MyPageResponse response = postService.findAllPostsWithPaging(1, "title", null);
+        // then
+        verify(postRepository, never()).findAllPostsByKeyword(any());
+        assertThat(((List<PostResponse>) response.getContents()))
+                .extracting(PostResponse::getId).containsExactly(3L, 1L, 2L);
+        assertThat(response.getPageList()).containsExactly(0, 1);
+    }
+
     @Test
     void 내가쓴_게시물_조회() throws Exception {
         // given
@@ -175,7 +257,7 @@ class PostServiceTest {
         when(postRepository.findAllPostsByKeyword(any())).thenReturn(Optional.of(temp));
         when(postRepository.getPostCount(eq("post"))).thenReturn(1L);
         // then
-        assertThatThrownBy(() -> postService.findAllPostsByKeyword(""))
+        assertThatThrownBy(() -> postService.findAllPostsByKeyword("", 0))
                 .isInstanceOf(OlaApplicationException.class);
     }
 
@@ -229,6 +311,21 @@ class PostServiceTest {
         assertThatNoException();
     }
 
+    @Test
+    void 일반게시물_삭제시_읽지_않은_알람_수를_유저별로_뺌() throws Exception {
+        // given
+        Post post = Fixture.makePostFixture("user1", "title1");
+        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(alarmRepository.countUnreadByPostId(post.getId())).thenReturn(Map.of(7L, 2L, 8L, 1L));
+        // when
+        postService.delete(post.getId(), post.getUser().getUsername());
+        // then
+        verify(alarmRepository).deleteByPostId(post.getId());
+        assertThat(applicationEvents.stream(UnreadCountChangedEvent.class))
+                .extracting(UnreadCountChangedEvent::getUserId, UnreadCountChangedEvent::getDelta)
+                .containsExactlyInAnyOrder(tuple(7L, -2L), tuple(8L, -1L));
+    }
+
     @Test
     void 일반게시물_삭제시_게시물이_없는경우() throws Exception {
         // given
@@ -0,0 +1,87 @@
+package com.example.ola.service;
+
+import com.example.ola.config.RateLimitProperties;
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitProperties properties;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setMaxBuckets(2);
+        properties.setUsername(new RateLimitProperties.Rule(2, 0.001));
+        rateLimiter = new RateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void id_별로_따로_제한() throws Exception {
+        assertThat(rateLimiter.tryAcquire("login", "1.1.1.1", 1, 0.001)).isZero();
+        assertThat(rateLimiter.tryAcquire("login", "1.1.1.1", 1, 0.001)).isGreaterThan(0);
+        assertThat(rateLimiter.tryAcquire("login", "2.2.2.2", 1, 0.001)).isZero();
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("route", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 버킷이_가득_차면_새_IP_는_공용_버킷을_씀() throws Exception {
+        rateLimiter.tryAcquire("login", "1.1.1.1", 1, 0.001);
+        rateLimiter.tryAcquire("login", "2.2.2.2", 1, 0.001);
+
+        assertThat(rateLimiter.tryAcquire("login", "3.3.3.3", 1, 0.001)).isZero();
+        assertThat(rateLimiter.tryAcquire("login", "4.4.4.4", 1, 0.001)).isGreaterThan(0);
+    }
+
+    @Test
+    void 버킷이_가득_차도_username_은_공용_버킷으로_막지_않음() throws Exception {
+        rateLimiter.tryAcquire("login", "1.1.1.1", 1, 0.001);
+        rateLimiter.tryAcquire("login", "2.2.2.2", 1, 0.001);
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquireForUsername("user" + i);
+        }
+        rateLimiter.acquireForUsername("user0");
+        assertThat(meterRegistry.get("rate.limit.buckets").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void username_별_시도_제한() throws Exception {
+        rateLimiter.acquireForUsername("user1");
+        rateLimiter.acquireForUsername("user1");
+
+        assertThatThrownBy(() -> rateLimiter.acquireForUsername("user1"))
+                .isInstanceOf(OlaApplicationException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.TOO_MANY_REQUESTS);
+        rateLimiter.acquireForUsername("user2");
+    }
+
+    @Test
+    void 유휴_버킷만_정리() throws Exception {
+        rateLimiter.tryAcquire("login", "1.1.1.1", 1, 1_000_000);
+        rateLimiter.tryAcquire("login", "2.2.2.2", 1, 0.001);
+        Thread.sleep(5);
+
+        rateLimiter.evictIdle();
+
+        assertThat(meterRegistry.get("rate.limit.buckets").gauge().value()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire("login", "2.2.2.2", 1, 0.001)).isGreaterThan(0);
+    }
+
+    @Test
+    void 꺼져_있으면_username_은_제한하지_않음() throws Exception {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquireForUsername("user1");
+        }
+        assertThat(meterRegistry.get("rate.limit.buckets").gauge().value()).isZero();
+    }
+}
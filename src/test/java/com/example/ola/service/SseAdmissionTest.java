@@ -0,0 +1,75 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.EmitterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseAdmissionTest {
+    private EmitterRepository emitterRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        emitterRepository = new EmitterRepository();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void 초당_수락_수를_넘으면_거절() throws Exception {
+        // given
+        SseAdmission admission = newAdmission(true, 100, 2);
+        // when then
+        assertThat(admission.tryAdmit()).isZero();
+        assertThat(admission.tryAdmit()).isZero();
+        assertThat(admission.tryAdmit()).isGreaterThanOrEqualTo(1_000L);
+        assertThat(meterRegistry.counter("alarm.sse.admission", "result", "accepted").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("alarm.sse.admission", "result", "rate_limited").count()).isEqualTo(1);
+    }
+
+    @Test
+    void 동시_연결_수가_가득_차면_거절() throws Exception {
+        // given
+        SseAdmission admission = newAdmission(true, 2, 100);
+        emitterRepository.save(1L);
+        emitterRepository.subscribe(10L);
+        // when then
+        assertThat(admission.tryAdmit()).isBetween(1_000L, 3_000L);
+        assertThat(meterRegistry.counter("alarm.sse.admission", "result", "full").count()).isEqualTo(1);
+    }
+
+    @Test
+    void 로그인하지_않은_연결은_별도_bucket_을_씀() throws Exception {
+        // given
+        SseAdmission admission = newAdmission(true, 100, 1);
+        // when then
+        assertThat(admission.tryAdmitAnonymous()).isZero();
+        assertThat(admission.tryAdmitAnonymous()).isGreaterThanOrEqualTo(1_000L);
+        assertThat(admission.tryAdmit()).isZero();
+    }
+
+    @Test
+    void 꺼져_있으면_항상_수락() throws Exception {
+        // given
+        SseAdmission admission = newAdmission(false, 0, 1);
+        // when then
+        assertThat(admission.tryAdmit()).isZero();
+        assertThat(admission.tryAdmit()).isZero();
+    }
+
+    @Test
+    void 재연결_대기_시간은_범위_안에서_흩어짐() throws Exception {
+        // given
+        SseAdmission admission = newAdmission(true, 100, 100);
+        // when then
+        for (int i = 0; i < 100; i++) {
+            assertThat(admission.reconnectTimeMillis()).isBetween(1_000L, 3_000L);
+        }
+    }
+
+    private SseAdmission newAdmission(boolean enabled, int maxConnections, long burst) {
+        return new SseAdmission(emitterRepository, enabled, maxConnections, burst, 0.1, 1, 0.1, 1_000L, 2_000L, meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ola.service;
+
+import com.example.ola.repository.EmitterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseWriterTest {
+    private EmitterRepository emitterRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private SseWriter sseWriter;
+    private SseEmitter emitter;
+    private CountDownLatch sending;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        emitterRepository = mock(EmitterRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        emitter = mock(SseEmitter.class);
+        sending = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        // 첫 전송을 붙잡아 느린 클라이언트를 흉내낸다.
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return null;
+        }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sseWriter.shutdown();
+    }
+
+    @Test
+    void 큐가_가득_차면_가장_오래된_이벤트를_버림() throws Exception {
+        sseWriter = newWriter(SseWriter.OverflowPolicy.DROP_OLDEST);
+        sseWriter.send(1L, emitter, event("1"));
+        assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+
+        sseWriter.send(1L, emitter, event("2"));
+        sseWriter.send(1L, emitter, event("3"));
+        sseWriter.send(1L, emitter, event("4"));
+        assertThat(meterRegistry.counter("alarm.sse.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("alarm.sse.queue.depth").gauge().value()).isEqualTo(2);
+
+        release.countDown();
+        verify(emitter, timeout(1000).times(3)).send(any(SseEmitter.SseEventBuilder.class)); // 1 + 3 + 4
+        verify(emitterRepository, never()).delete(any(), any());
+    }
+
+    @Test
+    void 큐가_가득_차면_연결을_끊음() throws Exception {
+        sseWriter = newWriter(SseWriter.OverflowPolicy.DISCONNECT);
+        sseWriter.send(1L, emitter, event("1"));
+        assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+
+        sseWriter.send(1L, emitter, event("2"));
+        sseWriter.send(1L, emitter, event("3"));
+        sseWriter.send(1L, emitter, event("4"));
+
+        verify(emitter).complete();
+        verify(emitterRepository).delete(1L, emitter);
+        assertThat(meterRegistry.counter("alarm.sse.disconnected").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("alarm.sse.queue.depth").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void 전송에_실패하면_연결을_정리() throws Exception {
+        sseWriter = newWriter(SseWriter.OverflowPolicy.DROP_OLDEST);
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(IOException.class).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+
+        sseWriter.send(2L, broken, event("1"));
+
+        verify(emitterRepository, timeout(1000)).delete(2L, broken);
+        assertThat(meterRegistry.counter("alarm.sse.reaped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void 정리된_연결에는_다시_쓰거나_두_번_정리하지_않음() throws Exception {
+        sseWriter = newWriter(SseWriter.OverflowPolicy.DROP_OLDEST);
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(IOException.class).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+
+        sseWriter.send(2L, broken, event("1"));
+        verify(emitterRepository, timeout(1000)).delete(2L, broken);
+        sseWriter.send(2L, broken, event("2"));
+        sseWriter.sendIfIdle(2L, broken, SseEmitter.event().comment("heartbeat"));
+
+        verify(broken, after(200).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitterRepository, times(1)).delete(2L, broken);
+        assertThat(meterRegistry.get("alarm.sse.queue.depth").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void 보낼_이벤트가_남아_있으면_heartbeat_를_넣지_않음() throws Exception {
+        sseWriter = newWriter(SseWriter.OverflowPolicy.DROP_OLDEST);
+        sseWriter.send(1L, emitter, event("1"));
+        assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+
+        sseWriter.send(1L, emitter, event("2"));
+        sseWriter.sendIfIdle(1L, emitter, SseEmitter.event().comment("heartbeat"));
+        assertThat(meterRegistry.get("alarm.sse.queue.depth").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        verify(emitter, timeout(1000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    private SseWriter newWriter(SseWriter.OverflowPolicy overflowPolicy) {
+        return new SseWriter(emitterRepository, 1, 2, overflowPolicy, meterRegistry);
+    }
+
+    private SseEmitter.SseEventBuilder event(String id) {
+        return SseEmitter.event().id(id).name("alarm").data(id);
+    }
+}
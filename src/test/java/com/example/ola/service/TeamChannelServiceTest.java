@@ -0,0 +1,85 @@
+package com.example.ola.service;
+
+import com.example.ola.domain.TeamBuildingStatus;
+import com.example.ola.event.TeamMembersChangedEvent;
+import com.example.ola.exception.ErrorCode;
+import com.example.ola.exception.OlaApplicationException;
+import com.example.ola.fixture.Fixture;
+import com.example.ola.repository.EmitterRepository;
+import com.example.ola.repository.TeamPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TeamChannelServiceTest {
+    private EmitterRepository emitterRepository;
+    private TeamPostRepository teamPostRepository;
+    private SseWriter sseWriter;
+    private TeamChannelService teamChannelService;
+
+    @BeforeEach
+    void setUp() {
+        emitterRepository = new EmitterRepository();
+        teamPostRepository = mock(TeamPostRepository.class);
+        sseWriter = mock(SseWriter.class);
+        teamChannelService = new TeamChannelService(emitterRepository, teamPostRepository, sseWriter, mock(SseAdmission.class));
+    }
+
+    @Test
+    void 멤버_변경시_채널_구독자_전체에_전송() throws Exception {
+        // given
+        SseEmitter viewer1 = emitterRepository.subscribe(1L);
+        SseEmitter viewer2 = emitterRepository.subscribe(1L);
+        SseEmitter otherPost = emitterRepository.subscribe(2L);
+        // when
+        teamChannelService.broadcast(TeamMembersChangedEvent.of(1L, 3, 1, 4L, TeamBuildingStatus.READY));
+        // then
+        verify(sseWriter).sendToChannel(eq(1L), eq(viewer1), any());
+        verify(sseWriter).sendToChannel(eq(1L), eq(viewer2), any());
+        verify(sseWriter, never()).sendToChannel(eq(2L), eq(otherPost), any());
+        assertThat(emitterRepository.subscriberCount()).isEqualTo(3);
+    }
+
+    @Test
+    void 구독_해제된_연결에는_전송하지_않음() throws Exception {
+        // given
+        SseEmitter viewer = emitterRepository.subscribe(1L);
+        emitterRepository.unsubscribe(1L, viewer);
+        // when
+        teamChannelService.broadcast(TeamMembersChangedEvent.of(1L, 3, 1, 4L, TeamBuildingStatus.READY));
+        // then
+        verifyNoInteractions(sseWriter);
+        assertThat(emitterRepository.subscriberCount()).isZero();
+    }
+
+    @Test
+    void 구독시_현재_멤버_수도_전송_큐로_보냄() throws Exception {
+        // given
+        when(teamPostRepository.findTeamPostById(1L))
+                .thenReturn(Optional.of(Fixture.makeTeamPostFixture("user1", "title", 3.14, 3.14)));
+        // when
+        SseEmitter subscribed = teamChannelService.subscribe(1L);
+        // then
+        assertThat(emitterRepository.getSubscribers(1L)).containsExactly(subscribed);
+        verify(sseWriter).sendToChannel(eq(1L), eq(subscribed), any());
+    }
+
+    @Test
+    void 없는_게시글_구독시_에러() throws Exception {
+        // when
+        when(teamPostRepository.findTeamPostById(1L)).thenReturn(Optional.empty());
+        // then
+        assertThatThrownBy(() -> teamChannelService.subscribe(1L))
+                .isInstanceOf(OlaApplicationException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.POST_NOT_FOUND);
+        assertThat(emitterRepository.subscriberCount()).isZero();
+    }
+}
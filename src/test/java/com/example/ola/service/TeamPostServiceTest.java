@@ -8,6 +8,9 @@ import com.example.ola.dto.request.TeamPostUpdateRequest;
 import com.example.ola.dto.request.TeamPostWriteRequest;
 import com.example.ola.dto.response.MyPageResponse;
 import com.example.ola.dto.response.TeamPostResponse;
+import com.example.ola.event.AlarmEvent;
+import com.example.ola.event.TeamAlarmEvent;
+import com.example.ola.event.TeamMembersChangedEvent;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
 import com.example.ola.repository.AlarmRepository;
@@ -15,8 +18,10 @@ import com.example.ola.repository.CommentRepository;
 import com.example.ola.repository.TeamPostRepository;
 import com.example.ola.repository.UserRepository;
 import com.example.ola.utils.Paging;
+import com.example.ola.utils.SearchResult;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -25,6 +30,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import javax.transaction.Transactional;
 
@@ -39,10 +46,15 @@ import static org.mockito.Mockito.*;
 @Slf4j
 @Transactional
 @SpringBootTest
+@RecordApplicationEvents
 class TeamPostServiceTest {
     @Autowired TeamPostService teamPostService;
+    @Autowired ApplicationEvents events;
     @MockBean TeamPostRepository teamPostRepository;
     @MockBean UserRepository userRepository;
+    @MockBean AlarmRepository alarmRepository;
+    @MockBean PostSearchIndex postSearchIndex;
+    @Autowired PostPageCache postPageCache;
     private static MockedStatic<Paging> paging;
 
     @BeforeAll
@@ -55,6 +67,11 @@ class TeamPostServiceTest {
         paging.close();
     }
 
+    @AfterEach
+    void tearDown() {
+        postPageCache.invalidateAll(); // 테스트마다 repository mock 이 달라 캐시된 페이지를 남기지 않는다.
+    }
+
     @Test
     void 팀빌딩_게시물_작성() throws Exception {
         TeamBuildingPost post = mock(TeamBuildingPost.class);
@@ -138,7 +155,7 @@ class TeamPostServiceTest {
         when(teamPostRepository.getPostCount(eq("T"))).thenReturn(1L);
         when(Paging.getPageList(anyInt(), anyInt(), anyInt())).thenReturn(List.of(1, 2));
         // then
-        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "", "");
+        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "", "", null);
         List<TeamPostResponse> contents = (List<TeamPostResponse>) allTeamPostsWithPaging.getContents();
         List<Integer> pageList = allTeamPostsWithPaging.getPageList();
         assertThat(contents.size()).isEqualTo(9);
@@ -157,7 +174,7 @@ class TeamPostServiceTest {
         when(teamPostRepository.findAllTeamPostsByKeyword(any())).thenReturn(Optional.of(temp));
         when(teamPostRepository.getPostCount(eq("T"))).thenReturn(1L);
         // then
-        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "title", "");
+        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "title", "", null);
         List<TeamPostResponse> contents = (List<TeamPostResponse>) allTeamPostsWithPaging.getContents();
         assertThat(contents.size()).isEqualTo(9);
     }
@@ -174,11 +191,31 @@ class TeamPostServiceTest {
         when(teamPostRepository.findAllTeamPostsByPlace(any())).thenReturn(Optional.of(temp));
         when(teamPostRepository.getPostCount(eq("T"))).thenReturn(1L);
         // then
-        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "title", "장소");
+        MyPageResponse allTeamPostsWithPaging = teamPostService.findAllTeamPostsWithPaging(0, "title", "장소", null);
         List<TeamPostResponse> contents = (List<TeamPostResponse>) allTeamPostsWithPaging.getContents();
         assertThat(contents.size()).isEqualTo(9);
     }
 
+    @Test
+    void 팀빌딩_게시물_장소_색인으로_조회() throws Exception {
+        // given
+        List<TeamBuildingPost> temp = new ArrayList<>();
+        for (long id = 1; id <= 2; id++) {
+            TeamBuildingPost post = spy(Fixture.makeTeamPostFixture("user" + id, "title" + id, 3.14, 3.14));
+            doReturn(id).when(post).getId();
+            temp.add(post);
+        }
+        when(postSearchIndex.searchPlace(eq("강남구"), eq(0), eq(9)))
+                .thenReturn(Optional.of(new SearchResult(List.of(2L, 1L), 2)));
+        when(teamPostRepository.findAllTeamPostsByIds(List.of(2L, 1L))).thenReturn(temp);
+        // when
+        MyPageResponse response = teamPostService.findAllTeamPostsWithPaging(0, "강남구", "장소", null);
+        // then
+        verify(teamPostRepository, never()).findAllTeamPostsByPlace(any());
+        assertThat((List<TeamPostResponse>) response.getContents())
+                .extracting(TeamPostResponse::getId).containsExactly(2L, 1L);
+    }
+
     @Test
     void 팀빌딩_가까운_게시물_조회() throws Exception {
         // given
@@ -346,6 +383,31 @@ class TeamPostServiceTest {
         verify(waitList).forEach(any());
     }
 
+    @Test
+    void 팀빌딩_게시물_대기열_추가시_알람은_한번에_저장() throws Exception {
+        // given
+        User user = Fixture.makeUserFixture("test", "1q2w3e4r!!");
+        TeamBuildingPost teamPost = mock(TeamBuildingPost.class);
+        List<TeamMember> memberList = new ArrayList<>(List.of(
+                TeamMember.of(teamPost, Fixture.makeUserFixture("user1", "1q2w3e4r!!")),
+                TeamMember.of(teamPost, Fixture.makeUserFixture("user2", "1q2w3e4r!!"))));
+        mockPostAndTeamMember(teamPost, memberList, new HashSet<>(), Fixture.makeUserFixture("user1", "1q2w3e4r!!"));
+
+        // when
+        when(userRepository.findByUsername(any())).thenReturn(Optional.of(user));
+        when(teamPostRepository.findTeamPostById(any())).thenReturn(Optional.of(teamPost));
+        when(alarmRepository.saveAll(anyList())).thenReturn(List.of(10L, 11L));
+        teamPostService.addWaitLists(1L, "test");
+
+        // then
+        verify(alarmRepository, times(1)).saveAll(argThat(alarms -> alarms.size() == 2)); // 대기열에 추가된 본인은 제외
+        verify(alarmRepository, never()).save(any());
+        assertThat(events.stream(TeamAlarmEvent.class).count()).isEqualTo(1); // 수신자 전체를 한 번에 발행
+        assertThat(events.stream(TeamAlarmEvent.class).findFirst().get().getAlarms())
+                .extracting(AlarmEvent::getAlarmId).containsExactly(10L, 11L);
+        assertThat(events.stream(TeamMembersChangedEvent.class).count()).isEqualTo(1);
+    }
+
     @Test
     void 팀빌딩_게시물_대기열_추가시_이미있는경우() throws Exception {
         // given
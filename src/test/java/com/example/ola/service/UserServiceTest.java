@@ -3,11 +3,13 @@ package com.example.ola.service;
 import com.example.ola.domain.HomeGym;
 import com.example.ola.domain.User;
 import com.example.ola.domain.UserGender;
+import com.example.ola.dto.TokenDto;
 import com.example.ola.dto.UserDto;
 import com.example.ola.dto.request.HomeGymRequest;
 import com.example.ola.dto.request.UserRequest;
 import com.example.ola.exception.OlaApplicationException;
 import com.example.ola.fixture.Fixture;
+import com.example.ola.jwt.JwtTokenProvider;
 import com.example.ola.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,6 +39,7 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 class UserServiceTest {
     @Autowired UserService userService;
+    @Autowired JwtTokenProvider jwtTokenProvider;
     @MockBean private UserRepository userRepository;
     @MockBean private PasswordEncoder encoder;
 
@@ -173,4 +177,27 @@ class UserServiceTest {
         assertThatThrownBy(() -> userService.login(user.getUsername(), raw))
                 .isInstanceOf(OlaApplicationException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void 토큰_재발급() throws Exception {
+        // given
+        User user = Fixture.makeUserFixture("user1", "1q2w3e4r!!");
+        String refreshToken = jwtTokenProvider.createRefreshToken(user.getUsername());
+        // when
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        TokenDto token = userService.refresh(refreshToken);
+        // then
+        assertThat(token.getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThatThrownBy(() -> userService.refresh(refreshToken)) // 회전된 토큰은 다시 쓸 수 없다.
+                .isInstanceOf(OlaApplicationException.class);
+    }
+
+    @Test
+    void 토큰_재발급시_access_토큰을_사용한_경우() throws Exception {
+        // given
+        String accessToken = jwtTokenProvider.createToken("user1", List.of("USER"));
+        // when then
+        assertThatThrownBy(() -> userService.refresh(accessToken))
+                .isInstanceOf(OlaApplicationException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ola.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressIndexTest {
+
+    @Test
+    void 도로명_주소를_구역으로_나눔() throws Exception {
+        assertThat(AddressIndex.tokenize("서울특별시 강남구 테헤란로 152 (역삼동, 강남파이낸스센터)"))
+                .containsExactly("서울", "강남구", "역삼동", "테헤란로");
+        assertThat(AddressIndex.tokenize("경기 성남시 분당구 판교역로 235"))
+                .containsExactly("경기", "성남시", "분당구", "판교역로");
+    }
+
+    @Test
+    void 구_동_단위로_최신순_조회() throws Exception {
+        AddressIndex index = new AddressIndex();
+        index.put(1L, "서울 강남구 테헤란로 152 (역삼동)");
+        index.put(2L, "서울 강남구 논현로 508 (역삼동)");
+        index.put(3L, "서울 강남구 도산대로 318 (논현동)");
+        index.put(4L, "서울 마포구 월드컵북로 396 (상암동)");
+
+        assertThat(index.search("강남구", 0, 10).getIds()).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("역삼동", 0, 10).getIds()).containsExactly(2L, 1L);
+        assertThat(index.search("서울특별시", 1, 2).getIds()).containsExactly(3L, 2L);
+        assertThat(index.search("서울특별시", 1, 2).getTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void 같은_이름의_구역은_상위_구역으로_구분() throws Exception {
+        AddressIndex index = new AddressIndex();
+        index.put(1L, "서울 중구 세종대로 110");
+        index.put(2L, "부산 중구 중앙대로 120");
+
+        assertThat(index.search("중구", 0, 10).getIds()).containsExactly(2L, 1L);
+        assertThat(index.search("부산 중구", 0, 10).getIds()).containsExactly(2L);
+    }
+
+    @Test
+    void 접두어로_조회() throws Exception {
+        AddressIndex index = new AddressIndex();
+        index.put(1L, "서울 강남구 테헤란로 152");
+        index.put(2L, "서울 강서구 공항대로 247");
+
+        assertThat(index.search("강남", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("강", 0, 10).getIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void 주소가_바뀌거나_삭제되면_반영됨() throws Exception {
+        AddressIndex index = new AddressIndex();
+        index.put(1L, "서울 강남구 테헤란로 152");
+        index.put(2L, "서울 마포구 월드컵북로 396");
+
+        index.put(1L, "서울 마포구 독막로 1");
+        index.remove(2L);
+
+        assertThat(index.search("강남구", 0, 10).getIds()).isEmpty();
+        assertThat(index.search("마포구", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void 구역_이름이_없는_검색어는_null() throws Exception {
+        assertThat(new AddressIndex().search("152", 0, 10)).isNull();
+    }
+}
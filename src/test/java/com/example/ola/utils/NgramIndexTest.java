@@ -0,0 +1,72 @@
+package com.example.ola.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NgramIndexTest {
+
+    @Test
+    void 조사가_붙은_단어도_검색() throws Exception {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "헬스장에서 같이 운동해요", "저녁 7시");
+        index.put(2L, "필라테스 모집", "주말 오전");
+
+        SearchResult result = index.search("헬스장", 0, 10);
+
+        assertThat(result.getIds()).containsExactly(1L);
+        assertThat(result.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void 제목에_있으면_본문보다_먼저_같으면_최신글이_먼저() throws Exception {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "크로스핏", "같이 운동해요");
+        index.put(2L, "운동 메이트", "크로스핏");
+        index.put(3L, "운동 메이트", "크로스핏");
+
+        assertThat(index.search("운동", 0, 10).getIds()).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("운동", 1, 1).getIds()).containsExactly(2L);
+        assertThat(index.search("운동", 1, 1).getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void 수정_삭제가_반영됨() throws Exception {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "수영 모집", "content");
+        index.put(2L, "수영 강습", "content");
+
+        index.put(1L, "요가 모집", "content");
+        index.remove(2L);
+
+        assertThat(index.search("수영", 0, 10).getIds()).isEmpty();
+        assertThat(index.search("요가", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void 이미_있는_문서는_putIfAbsent_로_덮어쓰지_않음() throws Exception {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "요가 모집", "content");
+
+        index.putIfAbsent(1L, "수영 모집", "content");
+
+        assertThat(index.search("요가", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("수영", 0, 10).getIds()).isEmpty();
+    }
+
+    @Test
+    void bigram_을_만들_수_없는_검색어는_null() throws Exception {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Gym", "content");
+
+        assertThat(index.search("!?", 0, 10)).isNull();
+        assertThat(index.search("g", 0, 10)).isNull();
+        assertThat(index.search("GYM", 0, 10).getIds()).containsExactly(1L);
+    }
+
+    @Test
+    void 단어마다_bigram_으로_자름() throws Exception {
+        assertThat(NgramIndex.tokenize("헬스 PT, 가")).containsExactly("헬스", "pt");
+    }
+}
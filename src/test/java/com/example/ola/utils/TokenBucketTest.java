@@ -0,0 +1,52 @@
+package com.example.ola.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void capacity_만큼_연속으로_가져온_뒤_거절() throws Exception {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void 시간이_지나면_refillPerSecond_만큼_채워짐() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 2)).isGreaterThan(0);
+    }
+
+    @Test
+    void 오래_쉬어도_capacity_이상은_쌓이지_않음() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertThat(bucket.tryAcquire(100 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(100 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(100 * SECOND)).isGreaterThan(0);
+    }
+
+    @Test
+    void 가득_차면_유휴() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        assertThat(bucket.isIdle(0)).isTrue();
+
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.isIdle(SECOND - 1)).isFalse();
+        assertThat(bucket.isIdle(SECOND)).isTrue();
+    }
+}